@@ -0,0 +1,236 @@
+package net.neoforged.jst.accesstransformers;
+
+import net.neoforged.accesstransformer.parser.Target;
+import net.neoforged.accesstransformer.parser.Transformation;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A persistent cache of parsed AT files, keyed by the hash of their content.
+ * <p>
+ * The origins of the transformations refer to the AT file they were parsed from. Origins in the cached file
+ * are stored without its path and resolved against the path of the file being loaded, so that problems are
+ * reported at the same locations as if the file had been parsed.
+ * <p>
+ * Inner class targets are not stored, since the parser generates one for each class target of an inner class,
+ * which is restored when loading.
+ */
+final class AccessTransformerCache {
+    private static final int MAGIC = 0x4A535441; // JSTA
+    private static final int VERSION = 1;
+
+    private static final int CLASS_TARGET = 0;
+    private static final int FIELD_TARGET = 1;
+    private static final int METHOD_TARGET = 2;
+    private static final int WILDCARD_FIELD_TARGET = 3;
+    private static final int WILDCARD_METHOD_TARGET = 4;
+
+    /**
+     * The smallest size of an entry, which is a class target with no origins.
+     */
+    private static final int MIN_ENTRY_SIZE = 10;
+
+    private static final int NO_ORIGIN = 0;
+    private static final int RELATIVE_ORIGIN = 1;
+    private static final int ABSOLUTE_ORIGIN = 2;
+
+    private final Path directory;
+    private final Queue<String> storeFailures = new ConcurrentLinkedQueue<>();
+
+    AccessTransformerCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The transformations of the AT file with the given hash, or null if they are not cached.
+     * An entry that is corrupt or can't be read is treated the same as a missing one and will be overwritten.
+     */
+    @Nullable
+    Map<Target, Transformation> load(String hash, Path atFile) {
+        var originPrefix = atFile + ":";
+        byte[] data;
+        try {
+            data = Files.readAllBytes(getCacheFile(hash));
+        } catch (IOException e) {
+            return null;
+        }
+
+        try (var in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+
+            var count = in.readInt();
+            if (count < 0 || count > data.length / MIN_ENTRY_SIZE) {
+                return null;
+            }
+            var result = new HashMap<Target, Transformation>(count * 2);
+            for (int i = 0; i < count; i++) {
+                var kind = in.readUnsignedByte();
+                var className = in.readUTF();
+                Target target = switch (kind) {
+                    case CLASS_TARGET -> new Target.ClassTarget(className);
+                    case FIELD_TARGET -> new Target.FieldTarget(className, in.readUTF());
+                    case METHOD_TARGET -> new Target.MethodTarget(className, in.readUTF(), in.readUTF());
+                    case WILDCARD_FIELD_TARGET -> new Target.WildcardFieldTarget(className);
+                    case WILDCARD_METHOD_TARGET -> new Target.WildcardMethodTarget(className);
+                    default -> null;
+                };
+                if (target == null) {
+                    return null;
+                }
+
+                var modifier = Transformation.Modifier.valueOf(in.readUTF());
+                var finalState = Transformation.FinalState.valueOf(in.readUTF());
+                var origin = readOrigin(in, originPrefix);
+                var originCount = in.readUnsignedShort();
+                var origins = new ArrayList<String>(originCount);
+                for (int j = 0; j < originCount; j++) {
+                    origins.add(readOrigin(in, originPrefix));
+                }
+                var transformation = new Transformation(modifier, finalState, origin, origins);
+                result.put(target, transformation);
+
+                var innerClassSeparator = className.lastIndexOf('$');
+                if (kind == CLASS_TARGET && innerClassSeparator != -1) {
+                    result.put(new Target.InnerClassTarget(className.substring(0, innerClassSeparator), className), transformation);
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            // Truncated entries or malformed strings
+            return null;
+        } catch (IllegalArgumentException e) {
+            // Unknown enum constants, i.e. the cache was written by a different version of the parser
+            return null;
+        }
+    }
+
+    /**
+     * Stores the transformations of the AT file with the given hash. Failures are only recorded, since the file
+     * is parsed again when it is not cached.
+     *
+     * @see #getStoreFailures()
+     */
+    void store(String hash, Path atFile, Map<Target, Transformation> transformations) {
+        try {
+            write(hash, atFile, transformations);
+        } catch (IOException e) {
+            storeFailures.add("Failed to cache parsed access transformer file " + atFile + " in " + directory + ": " + e);
+        }
+    }
+
+    /**
+     * @return The failures to store files since the cache was created.
+     */
+    Collection<String> getStoreFailures() {
+        return storeFailures;
+    }
+
+    private void write(String hash, Path atFile, Map<Target, Transformation> transformations) throws IOException {
+        var originPrefix = atFile + ":";
+        var entries = new ArrayList<Map.Entry<Target, Transformation>>(transformations.size());
+        for (var entry : transformations.entrySet()) {
+            if (!(entry.getKey() instanceof Target.InnerClassTarget)) {
+                entries.add(entry);
+            }
+        }
+
+        Files.createDirectories(directory);
+        var cacheFile = getCacheFile(hash);
+        var tempFile = Files.createTempFile(directory, hash, ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (var entry : entries) {
+                    writeTarget(out, entry.getKey());
+
+                    var transformation = entry.getValue();
+                    out.writeUTF(transformation.modifier().name());
+                    out.writeUTF(transformation.finalState().name());
+                    writeOrigin(out, transformation.origin(), originPrefix);
+                    List<String> origins = transformation.origins();
+                    out.writeShort(origins.size());
+                    for (var origin : origins) {
+                        writeOrigin(out, origin, originPrefix);
+                    }
+                }
+            }
+
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Nullable
+    private static String readOrigin(DataInputStream in, String originPrefix) throws IOException {
+        return switch (in.readUnsignedByte()) {
+            case NO_ORIGIN -> null;
+            case RELATIVE_ORIGIN -> originPrefix + in.readUTF();
+            default -> in.readUTF();
+        };
+    }
+
+    private static void writeOrigin(DataOutputStream out, @Nullable String origin, String originPrefix) throws IOException {
+        if (origin == null) {
+            out.writeByte(NO_ORIGIN);
+        } else if (origin.startsWith(originPrefix)) {
+            out.writeByte(RELATIVE_ORIGIN);
+            out.writeUTF(origin.substring(originPrefix.length()));
+        } else {
+            out.writeByte(ABSOLUTE_ORIGIN);
+            out.writeUTF(origin);
+        }
+    }
+
+    private static void writeTarget(DataOutputStream out, Target target) throws IOException {
+        if (target instanceof Target.ClassTarget) {
+            out.writeByte(CLASS_TARGET);
+            out.writeUTF(target.className());
+        } else if (target instanceof Target.FieldTarget fieldTarget) {
+            out.writeByte(FIELD_TARGET);
+            out.writeUTF(target.className());
+            out.writeUTF(fieldTarget.fieldName());
+        } else if (target instanceof Target.MethodTarget methodTarget) {
+            out.writeByte(METHOD_TARGET);
+            out.writeUTF(target.className());
+            out.writeUTF(methodTarget.methodName());
+            out.writeUTF(methodTarget.methodDescriptor());
+        } else if (target instanceof Target.WildcardFieldTarget) {
+            out.writeByte(WILDCARD_FIELD_TARGET);
+            out.writeUTF(target.className());
+        } else if (target instanceof Target.WildcardMethodTarget) {
+            out.writeByte(WILDCARD_METHOD_TARGET);
+            out.writeUTF(target.className());
+        } else {
+            throw new IllegalArgumentException("Unsupported target " + target);
+        }
+    }
+
+    private Path getCacheFile(String hash) {
+        return directory.resolve(hash + ".bin");
+    }
+}
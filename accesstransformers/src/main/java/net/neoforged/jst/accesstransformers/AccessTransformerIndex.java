@@ -0,0 +1,186 @@
+package net.neoforged.jst.accesstransformers;
+
+import net.neoforged.accesstransformer.parser.Target;
+import net.neoforged.accesstransformer.parser.Transformation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * The targets of all ATs, which tracks the targets that were applied.
+ * <p>
+ * Each target has a dense id, which is its index in the order of {@link Target#toString()}, and applied targets are
+ * marked in an atomic bitset, so that marking them from multiple threads doesn't contend on a shared map.
+ * The members targeted by ATs are grouped by the class they belong to, which allows skipping members without ATs
+ * before their targets are built.
+ */
+final class AccessTransformerIndex {
+    private static final ClassTargets EMPTY = new ClassTargets();
+
+    private final Target[] targets;
+    private final Transformation[] transformations;
+    private final Map<Target, Integer> ids;
+    private final AtomicLongArray applied;
+    private final Map<String, ClassTargets> classes = new HashMap<>();
+    private final Set<String> classNames = new HashSet<>();
+
+    AccessTransformerIndex(Map<Target, Transformation> ats) {
+        targets = ats.keySet().toArray(Target[]::new);
+        // A stable order, so that missing targets are always reported in the same order
+        Arrays.sort(targets, Comparator.comparing(Target::toString));
+        transformations = new Transformation[targets.length];
+        ids = new HashMap<>(targets.length * 2);
+        applied = new AtomicLongArray((targets.length + 63) / 64);
+
+        for (int id = 0; id < targets.length; id++) {
+            var target = targets[id];
+            transformations[id] = ats.get(target);
+            ids.put(target, id);
+            classNames.add(target.className());
+
+            if (target instanceof Target.FieldTarget fieldTarget) {
+                getOrCreate(target.className()).fieldIds.put(fieldTarget.fieldName(), id);
+            } else if (target instanceof Target.MethodTarget methodTarget) {
+                getOrCreate(target.className()).methodIds
+                        .computeIfAbsent(methodTarget.methodName(), k -> new HashMap<>(2))
+                        .put(methodTarget.methodDescriptor(), id);
+            } else if (target instanceof Target.WildcardFieldTarget) {
+                getOrCreate(target.className()).fieldWildcardId = id;
+            } else if (target instanceof Target.WildcardMethodTarget) {
+                getOrCreate(target.className()).methodWildcardId = id;
+            }
+        }
+    }
+
+    private ClassTargets getOrCreate(String className) {
+        return classes.computeIfAbsent(className, k -> new ClassTargets());
+    }
+
+    /**
+     * @param className The binary name of the class, using {@code .} as the package separator.
+     * @return Whether any AT targets the class or one of its members.
+     */
+    boolean containsClass(String className) {
+        return classNames.contains(className);
+    }
+
+    /**
+     * @param className The binary name of the class, using {@code .} as the package separator.
+     */
+    ClassTargets get(@Nullable String className) {
+        return className == null ? EMPTY : classes.getOrDefault(className, EMPTY);
+    }
+
+    /**
+     * Marks the target as applied.
+     *
+     * @return The AT for the target, or null if there is none or the target was already applied before.
+     */
+    @Nullable
+    Transformation apply(Target target) {
+        var id = ids.get(target);
+        return id == null ? null : apply(id);
+    }
+
+    /**
+     * Marks the target with the given id as applied.
+     *
+     * @return The AT for the target, or null if the id is {@code -1} or the target was already applied before.
+     */
+    @Nullable
+    Transformation apply(int id) {
+        if (id == -1) {
+            return null;
+        }
+        var mask = 1L << id;
+        var word = applied.get(id >>> 6);
+        while ((word & mask) == 0) {
+            var witness = applied.compareAndExchange(id >>> 6, word, word | mask);
+            if (witness == word) {
+                return transformations[id];
+            }
+            word = witness;
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether the target has an AT which was not applied yet.
+     */
+    boolean isPending(Target target) {
+        var id = ids.get(target);
+        return id != null && !isApplied(id);
+    }
+
+    private boolean isApplied(int id) {
+        return (applied.get(id >>> 6) & (1L << id)) != 0;
+    }
+
+    boolean hasPending() {
+        for (int i = 0; i < applied.length(); i++) {
+            var expected = i == applied.length() - 1 && targets.length % 64 != 0 ? (1L << targets.length) - 1 : -1L;
+            if (applied.get(i) != expected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits the targets that were not applied, in the order of their ids.
+     */
+    void forEachPending(BiConsumer<Target, Transformation> consumer) {
+        for (int i = 0; i < applied.length(); i++) {
+            var pending = ~applied.get(i);
+            while (pending != 0) {
+                var id = (i << 6) + Long.numberOfTrailingZeros(pending);
+                if (id >= targets.length) {
+                    break;
+                }
+                consumer.accept(targets[id], transformations[id]);
+                pending &= pending - 1;
+            }
+        }
+    }
+
+    /**
+     * The ids of the targets of a class' members, or {@code -1} if there is no such target.
+     */
+    static final class ClassTargets {
+        private final Map<String, Integer> fieldIds = new HashMap<>();
+        private final Map<String, Map<String, Integer>> methodIds = new HashMap<>();
+        private int fieldWildcardId = -1;
+        private int methodWildcardId = -1;
+
+        int getFieldId(String name) {
+            return fieldIds.getOrDefault(name, -1);
+        }
+
+        /**
+         * @param name The binary name of the method, i.e. {@code <init>} for constructors.
+         */
+        boolean hasMethod(String name) {
+            return methodIds.containsKey(name);
+        }
+
+        int getMethodId(String name, String descriptor) {
+            var descriptors = methodIds.get(name);
+            return descriptors == null ? -1 : descriptors.getOrDefault(descriptor, -1);
+        }
+
+        int getFieldWildcardId() {
+            return fieldWildcardId;
+        }
+
+        int getMethodWildcardId() {
+            return methodWildcardId;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.intellij.psi.PsiFile;
 import net.neoforged.accesstransformer.parser.AccessTransformerFiles;
 import net.neoforged.accesstransformer.parser.Target;
 import net.neoforged.accesstransformer.parser.Transformation;
+import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.Logger;
 import net.neoforged.jst.api.Replacements;
 import net.neoforged.jst.api.SourceTransformer;
@@ -14,13 +15,28 @@ import net.neoforged.problems.ProblemId;
 import net.neoforged.problems.ProblemLocation;
 import net.neoforged.problems.ProblemReporter;
 import net.neoforged.problems.ProblemSeverity;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 public class AccessTransformersTransformer implements SourceTransformer {
@@ -38,49 +54,217 @@ public class AccessTransformersTransformer implements SourceTransformer {
     @CommandLine.Option(names = "--access-transformer-validation", description = "The level of validation to use for ats")
     public AccessTransformerValidation validation = AccessTransformerValidation.LOG;
 
-    private AccessTransformerFiles ats;
-    private Map<Target, Transformation> pendingATs;
+    @CommandLine.Option(names = "--access-transformer-validate-against", description = "Only validate the ATs against the class files in this jar, without parsing the sources or applying the ATs to them")
+    public Path validateAgainst;
+
+    @CommandLine.Option(names = "--access-transformer-cache-dir", description = "Store parsed access transformer files in this directory and reuse them for files with the same content in later runs")
+    public Path cacheDir;
+
+    /**
+     * The transformations of all AT files, merged in the order the files were given in.
+     */
+    private Map<Target, Transformation> ats;
+    /**
+     * The targets of all ATs, which tracks the targets that were applied.
+     */
+    private AccessTransformerIndex index;
+    /**
+     * The targets of all ATs, grouped by the name of the top-level class they belong to.
+     */
+    private Map<String, List<Target>> targetsByTopLevelClass;
+    /**
+     * Files in which applying ATs failed, which must be visited again in later runs to report the errors.
+     */
+    private final Set<PsiFile> erroredFiles = ConcurrentHashMap.newKeySet();
+    @Nullable
+    private Path failedFile;
+    @Nullable
+    private Exception loadFailure;
+    @Nullable
+    private AccessTransformerCache cache;
     private Logger logger;
     private ProblemReporter problemReporter;
     private volatile boolean errored;
 
+    @Override
+    public CompletableFuture<?> prepareAsync(Executor executor) {
+        cache = cacheDir != null ? new AccessTransformerCache(cacheDir) : null;
+        var loads = new ArrayList<CompletableFuture<Map<Target, Transformation>>>(atFiles.size());
+        for (Path path : atFiles) {
+            loads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return loadFile(path, cache);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                .handle((result, error) -> {
+                    mergeFiles(loads);
+                    return null;
+                });
+    }
+
+    private static Map<Target, Transformation> loadFile(Path path, @Nullable AccessTransformerCache cache) throws Exception {
+        String hash = null;
+        if (cache != null) {
+            hash = hashFile(path);
+            var cached = cache.load(hash, path);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        var files = new AccessTransformerFiles();
+        files.loadFromPath(path);
+        var transformations = files.getAccessTransformers();
+        if (cache != null) {
+            cache.store(hash, path, transformations);
+        }
+        return transformations;
+    }
+
+    /**
+     * Merges the transformations of the files in the order they were given in, like the parser does when it
+     * loads multiple files.
+     */
+    private void mergeFiles(List<CompletableFuture<Map<Target, Transformation>>> loads) {
+        ats = new HashMap<>();
+        for (int i = 0; i < loads.size(); i++) {
+            Map<Target, Transformation> transformations;
+            try {
+                transformations = loads.get(i).join();
+            } catch (CompletionException e) {
+                // Reported in beforeRun, where the problem reporter is available
+                failedFile = atFiles.get(i);
+                loadFailure = e.getCause() instanceof Exception cause ? cause : e;
+                return;
+            }
+            transformations.forEach((target, transformation) -> ats.merge(target, transformation, Transformation::mergeStates));
+        }
+
+        index = new AccessTransformerIndex(ats);
+
+        targetsByTopLevelClass = new HashMap<>();
+        for (var target : ats.keySet()) {
+            var className = target.className();
+            var innerClassSeparator = className.indexOf('$');
+            var topLevelClass = innerClassSeparator == -1 ? className : className.substring(0, innerClassSeparator);
+            targetsByTopLevelClass.computeIfAbsent(topLevelClass, k -> new ArrayList<>()).add(target);
+        }
+    }
+
     @Override
     public void beforeRun(TransformContext context) {
-        ats = new AccessTransformerFiles();
         logger = context.logger();
         problemReporter = context.problemReporter();
 
-        for (Path path : atFiles) {
-            try {
-                ats.loadFromPath(path);
-            } catch (Exception e) {
-                logger.error("Failed to parse access transformer file %s: %s", path, e.getMessage());
-
-                if (e.getMessage() != null) {
-                    var m = LINE_PATTERN.matcher(e.getMessage());
-                    if (m.matches()) {
-                        // The AT parser internally uses 0-based line numbering, but the problem reporter uses 1-based
-                        int line = 1 + Integer.parseUnsignedInt(m.group(1));
-                        problemReporter.report(INVALID_AT, ProblemSeverity.ERROR, ProblemLocation.ofLocationInFile(path, line), e.getMessage());
-                    } else {
-                        problemReporter.report(INVALID_AT, ProblemSeverity.ERROR, ProblemLocation.ofFile(path), e.getMessage());
-                    }
-                }
+        if (cache != null) {
+            // The files were parsed instead, so the run can continue
+            cache.getStoreFailures().forEach(failure -> logger.error("%s", failure));
+        }
 
-                if (e instanceof RuntimeException re) {
-                    throw re;
+        if (loadFailure != null) {
+            var e = loadFailure;
+            logger.error("Failed to parse access transformer file %s: %s", failedFile, e.getMessage());
+
+            if (e.getMessage() != null) {
+                var m = LINE_PATTERN.matcher(e.getMessage());
+                if (m.matches()) {
+                    // The AT parser internally uses 0-based line numbering, but the problem reporter uses 1-based
+                    int line = 1 + Integer.parseUnsignedInt(m.group(1));
+                    problemReporter.report(INVALID_AT, ProblemSeverity.ERROR, ProblemLocation.ofLocationInFile(failedFile, line), e.getMessage());
+                } else {
+                    problemReporter.report(INVALID_AT, ProblemSeverity.ERROR, ProblemLocation.ofFile(failedFile), e.getMessage());
                 }
-                throw new RuntimeException(e);
             }
+
+            if (e instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException(e);
         }
 
-        pendingATs = new ConcurrentHashMap<>(ats.getAccessTransformers());
+        if (validateAgainst != null) {
+            logger.debug("Validating access transformers against %s", validateAgainst);
+            var validator = new ClassFileValidator(index, logger, problemReporter);
+            try {
+                validator.validate(validateAgainst, targetsByTopLevelClass.keySet());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            errored |= validator.errored;
+        }
+    }
+
+    @Override
+    public Collection<String> getAffectedClasses() {
+        if (validateAgainst != null) {
+            // The ATs were already validated against the class files, so no source needs to be parsed
+            return List.of();
+        }
+        return targetsByTopLevelClass.keySet().stream().map(className -> className.replace('.', '/')).toList();
+    }
+
+    @Override
+    public @Nullable String getCacheFingerprint(FileEntry fileEntry) {
+        var fingerprint = new StringBuilder();
+        if (validateAgainst != null) {
+            // The ATs are not applied in this mode, so the results must not be shared with runs that apply them
+            fingerprint.append("validate-only\n");
+        }
+        for (var target : getTargets(fileEntry)) {
+            var transformation = ats.get(target);
+            // The origins are left out since they are only used when reporting problems, and files with problems are never cached
+            fingerprint.append(target).append('=').append(transformation.modifier()).append(' ').append(transformation.finalState()).append('\n');
+        }
+        return fingerprint.toString();
+    }
+
+    @Override
+    public boolean isCacheable(FileEntry fileEntry, PsiFile psiFile) {
+        if (erroredFiles.remove(psiFile)) {
+            return false;
+        }
+        // Targets of the file that were not applied are reported as missing after the run, which requires visiting the file
+        for (var target : getTargets(fileEntry)) {
+            if (index.isPending(target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void visitCachedFile(FileEntry fileEntry) {
+        // Only files in which all targets were applied are cached
+        for (var target : getTargets(fileEntry)) {
+            index.apply(target);
+        }
+    }
+
+    /**
+     * @return The targets of ATs for the classes declared in the given file, in a stable order.
+     */
+    private List<Target> getTargets(FileEntry fileEntry) {
+        var path = fileEntry.relativePath();
+        var className = path.substring(0, path.length() - ".java".length()).replace('/', '.');
+        var innerClassSeparator = className.indexOf('$');
+        var candidates = targetsByTopLevelClass.get(innerClassSeparator == -1 ? className : className.substring(0, innerClassSeparator));
+        if (candidates == null) {
+            return List.of();
+        }
+        return candidates.stream()
+                .filter(target -> target.className().equals(className) || target.className().startsWith(className + "$"))
+                .sorted(Comparator.comparing(Target::toString))
+                .toList();
     }
 
     @Override
     public boolean afterRun(TransformContext context) {
-        if (!pendingATs.isEmpty()) {
-            pendingATs.forEach((target, transformation) -> {
+        if (index.hasPending()) {
+            index.forEachPending((target, transformation) -> {
                 // ClassTarget for inner classes have a corresponding InnerClassTarget which is more obvious for users
                 // so we don't log the ClassTarget as that will cause duplication
                 if (target instanceof Target.ClassTarget && target.className().contains("$")) return;
@@ -117,10 +301,24 @@ public class AccessTransformersTransformer implements SourceTransformer {
 
     @Override
     public void visitFile(PsiFile psiFile, Replacements replacements) {
-        var visitor = new ApplyATsVisitor(ats, replacements, pendingATs, logger, problemReporter);
+        // Files are still visited if another transformer affects them
+        if (validateAgainst != null) {
+            return;
+        }
+        var visitor = new ApplyATsVisitor(index, replacements, logger, problemReporter);
         visitor.visitFile(psiFile);
         if (visitor.errored) {
             errored = true;
+            erroredFiles.add(psiFile);
+        }
+    }
+
+    private static String hashFile(Path path) throws IOException {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(path)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
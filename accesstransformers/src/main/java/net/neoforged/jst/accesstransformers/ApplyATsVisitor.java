@@ -11,14 +11,13 @@ import com.intellij.psi.PsiModifier;
 import com.intellij.psi.PsiModifierList;
 import com.intellij.psi.PsiModifierListOwner;
 import com.intellij.psi.PsiRecordComponent;
-import com.intellij.psi.PsiRecursiveElementVisitor;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.util.ClassUtil;
-import net.neoforged.accesstransformer.parser.AccessTransformerFiles;
 import net.neoforged.accesstransformer.parser.Target;
 import net.neoforged.accesstransformer.parser.Transformation;
 import net.neoforged.jst.api.Logger;
 import net.neoforged.jst.api.PsiHelper;
+import net.neoforged.jst.api.PsiStructuralElementVisitor;
 import net.neoforged.jst.api.Replacements;
 import net.neoforged.problems.Problem;
 import net.neoforged.problems.ProblemReporter;
@@ -26,18 +25,16 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-class ApplyATsVisitor extends PsiRecursiveElementVisitor {
-    private static final Set<String> ACCESS_MODIFIERS = Set.of(PsiModifier.PUBLIC, PsiModifier.PRIVATE, PsiModifier.PROTECTED);
+class ApplyATsVisitor extends PsiStructuralElementVisitor {
+    private static final String[] ACCESS_MODIFIERS = {PsiModifier.PUBLIC, PsiModifier.PRIVATE, PsiModifier.PROTECTED};
     private static final Set<String> MODIFIERS = Set.of(PsiModifier.MODIFIERS);
 
     public static final EnumMap<Transformation.Modifier, String> MODIFIER_TO_STRING = new EnumMap<>(
@@ -46,18 +43,22 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
     public static final Map<String, Transformation.Modifier> STRING_TO_MODIFIER = MODIFIER_TO_STRING.entrySet()
             .stream().collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
 
-    private final AccessTransformerFiles ats;
+    private final AccessTransformerIndex index;
     private final Replacements replacements;
-    private final Map<Target, Transformation> pendingATs;
     private final Logger logger;
     private final ProblemReporter problemReporter;
+    private final ModifierKeywords keywords = new ModifierKeywords();
     boolean errored = false;
+    /**
+     * The targets of the members of the class whose members are currently visited, or null if ATs can't target them.
+     */
+    @Nullable
+    private AccessTransformerIndex.ClassTargets currentClassTargets;
 
-    public ApplyATsVisitor(AccessTransformerFiles ats, Replacements replacements, Map<Target, Transformation> pendingATs, Logger logger, ProblemReporter problemReporter) {
-        this.ats = ats;
+    public ApplyATsVisitor(AccessTransformerIndex index, Replacements replacements, Logger logger, ProblemReporter problemReporter) {
+        this.index = index;
         this.replacements = replacements;
         this.logger = logger;
-        this.pendingATs = pendingATs;
         this.problemReporter = problemReporter;
     }
 
@@ -66,7 +67,7 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
         if (element instanceof PsiClass psiClass) {
             if (psiClass.getQualifiedName() != null) {
                 String className = ClassUtil.getJVMClassName(psiClass);
-                if (!ats.containsClassTarget(className)) {
+                if (!index.containsClass(className)) {
                     // Skip this class and its children, but not the inner classes
                     for (PsiClass innerClass : psiClass.getInnerClasses()) {
                         visitElement(innerClass);
@@ -74,51 +75,68 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
                     return;
                 }
 
-                var classAt = pendingATs.remove(new Target.ClassTarget(className));
+                var classAt = index.apply(new Target.ClassTarget(className));
                 apply(classAt, psiClass, psiClass);
                 // We also remove any possible inner class ATs declared for that class as all class targets targeting inner classes
                 // generate a InnerClassTarget AT
                 if (psiClass.getParent() instanceof PsiClass parent) {
-                    pendingATs.remove(new Target.InnerClassTarget(ClassUtil.getJVMClassName(parent), className));
+                    index.apply(new Target.InnerClassTarget(ClassUtil.getJVMClassName(parent), className));
                 }
 
-                checkImplicitConstructor(psiClass, className, classAt);
+                var targets = index.get(className);
+                checkImplicitConstructor(psiClass, className, targets, classAt);
 
-                var fieldWildcard = pendingATs.remove(new Target.WildcardFieldTarget(className));
+                var fieldWildcard = index.apply(targets.getFieldWildcardId());
                 if (fieldWildcard != null) {
                     for (PsiField field : psiClass.getFields()) {
                         // Apply a merged state if an explicit AT for the field already exists
-                        var newState = merge(fieldWildcard, pendingATs.remove(new Target.FieldTarget(className, field.getName())));
+                        var newState = merge(fieldWildcard, claimFieldAT(targets, field));
                         logger.debug("Applying field wildcard AT %s to %s in %s", newState, field.getName(), className);
                         apply(newState, field, psiClass);
                     }
                 }
 
-                var methodWildcard = pendingATs.remove(new Target.WildcardMethodTarget(className));
+                var methodWildcard = index.apply(targets.getMethodWildcardId());
                 if (methodWildcard != null) {
                     for (PsiMethod method : psiClass.getMethods()) {
                         // Apply a merged state if an explicit AT for the method already exists
-                        var newState = merge(methodWildcard, pendingATs.remove(method(className, method)));
+                        var newState = merge(methodWildcard, claimMethodAT(targets, method));
                         logger.debug("Applying method wildcard AT %s to %s in %s", newState, method.getName(), className);
                         apply(newState, method, psiClass);
                     }
                 }
+
+                visitMembers(psiClass, targets);
+            } else {
+                // ATs can't target members of local and anonymous classes
+                visitMembers(psiClass, null);
             }
+            return;
         } else if (element instanceof PsiField field) {
-            final var cls = field.getContainingClass();
-            if (cls != null && cls.getQualifiedName() != null) {
-                String className = ClassUtil.getJVMClassName(cls);
-                apply(pendingATs.remove(new Target.FieldTarget(className, field.getName())), field, cls);
+            if (currentClassTargets != null && field.getContainingClass() != null) {
+                apply(claimFieldAT(currentClassTargets, field), field, field.getContainingClass());
             }
         } else if (element instanceof PsiMethod method) {
-            final var cls = method.getContainingClass();
-            if (cls != null && cls.getQualifiedName() != null) {
-                String className = ClassUtil.getJVMClassName(cls);
-                apply(pendingATs.remove(method(className, method)), method, cls);
+            if (currentClassTargets != null && method.getContainingClass() != null) {
+                apply(claimMethodAT(currentClassTargets, method), method, method.getContainingClass());
             }
         }
 
-        element.acceptChildren(this);
+        // ATs only apply to declarations, so code is not visited
+        visitChildren(element);
+    }
+
+    /**
+     * Visits the members of the class, which are only looked up in the given targets.
+     */
+    private void visitMembers(PsiClass psiClass, @Nullable AccessTransformerIndex.ClassTargets targets) {
+        var outerClassTargets = currentClassTargets;
+        currentClassTargets = targets;
+        try {
+            visitChildren(psiClass);
+        } finally {
+            currentClassTargets = outerClassTargets;
+        }
     }
 
     private void apply(@Nullable Transformation at, PsiModifierListOwner owner, PsiClass containingClass) {
@@ -146,6 +164,7 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
         logger.debug("Applying AT %s to %s", at, targetInfo);
 
         var modifiers = owner.getModifierList();
+        keywords.classify(modifiers);
 
         var targetAcc = at.modifier();
 
@@ -153,85 +172,73 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
         if (containingClass.isInterface() && owner instanceof PsiMethod && !modifiers.hasModifierProperty(PsiModifier.STATIC)) {
             if (targetAcc != Transformation.Modifier.PUBLIC) {
                 error(at, "Access transformer targeting %s attempted to make a non-static interface method %s. They can only be made public.", targetInfo, targetAcc);
-            } else {
-                for (var kw : modifiers.getChildren()) {
-                    if (kw instanceof PsiKeyword && kw.getText().equals(PsiKeyword.PRIVATE)) { // Strip private, replace it with default
-                        replacements.replace(kw, PsiModifier.DEFAULT);
-                        break;
-                    }
-                }
+            } else if (keywords.privateKeyword != null) { // Strip private, replace it with default
+                replacements.replace(keywords.privateKeyword, PsiModifier.DEFAULT);
             }
         } else if (containingClass.isEnum() && owner instanceof PsiMethod mtd && mtd.isConstructor() && at.modifier().ordinal() < Transformation.Modifier.DEFAULT.ordinal()) {
             // Enum constructors can at best be package-private, any other attempt must be prevented
             error(at, "Access transformer targeting %s attempted to make an enum constructor %s", targetInfo, at.modifier());
         } else if (targetAcc.ordinal() < detectModifier(modifiers, null).ordinal()) { // PUBLIC (0) < PROTECTED (1) < DEFAULT (2) < PRIVATE (3)
-            modify(targetAcc, modifiers, Arrays.stream(modifiers.getChildren())
-                    .filter(el -> el instanceof PsiKeyword)
-                    .map(el -> (PsiKeyword) el)
-                    .filter(kw -> ACCESS_MODIFIERS.contains(kw.getText()))
-                    .findFirst());
+            modify(targetAcc, modifiers, keywords);
         }
 
         var finalState = at.finalState();
         if (finalState == Transformation.FinalState.REMOVEFINAL && modifiers.hasModifierProperty(PsiModifier.FINAL)) {
-            Arrays.stream(modifiers.getChildren())
-                    .filter(el -> el instanceof PsiKeyword)
-                    .map(el -> (PsiKeyword) el)
-                    .filter(kw -> kw.getText().equals(PsiModifier.FINAL))
-                    .findFirst()
-                    .ifPresent(replacements::remove);
+            if (keywords.finalKeyword != null) {
+                replacements.remove(keywords.finalKeyword);
+            }
         } else if (finalState == Transformation.FinalState.MAKEFINAL && !modifiers.hasModifierProperty(PsiModifier.FINAL)) {
             error(at, "Access transformer attempted to make %s final. Was non-final", targetInfo);
         }
     }
 
-    private void modify(Transformation.Modifier targetAcc, PsiModifierList modifiers, Optional<PsiKeyword> existingModifier) {
+    private void modify(Transformation.Modifier targetAcc, PsiModifierList modifiers, ModifierKeywords keywords) {
+        var existingModifier = keywords.accessKeyword;
         if (targetAcc == Transformation.Modifier.DEFAULT) {
-            existingModifier.ifPresent(replacements::remove);
+            if (existingModifier != null) {
+                replacements.remove(existingModifier);
+            }
         } else {
-            if (existingModifier.isPresent()) {
-                replacements.replace(existingModifier.get(), MODIFIER_TO_STRING.get(targetAcc));
+            if (existingModifier != null) {
+                replacements.replace(existingModifier, MODIFIER_TO_STRING.get(targetAcc));
             } else {
-                if (modifiers.getChildren().length == 0) {
+                if (keywords.empty) {
                     // Empty modifiers are blank so we basically replace them
                     replacements.insertAfter(modifiers, MODIFIER_TO_STRING.get(targetAcc) + " ");
                 } else {
                     var modifierStr = MODIFIER_TO_STRING.get(targetAcc);
-                    Arrays.stream(modifiers.getChildren())
-                            .filter(element -> element instanceof PsiKeyword && MODIFIERS.contains(element.getText()))
-                            .findFirst()
-                            // If there's other modifiers, insert just before the first
-                            .ifPresentOrElse(first -> {
-                                replacements.insertBefore(first, modifierStr + " ");
-                            }, () -> {
-                                // Otherwise insert before the declaration:
-                                // - element type (interface, enum, class, record) in the case of classes
-                                // - return type in the case of methods
-                                // - identifier in the case of constructors
-                                // - type in the case of fields
-                                if (modifiers.getParent() instanceof PsiClass cls) {
-                                    final String typeKeyword = detectKind(cls);
-
-                                    PsiElement next = modifiers;
-                                    while ((next = next.getNextSibling()) != null) {
-                                        if (next instanceof PsiKeyword kw && kw.getText().equals(typeKeyword)) {
-                                            replacements.insertBefore(kw, modifierStr + " ");
-                                            break;
-                                        }
-                                    }
-                                } else if (modifiers.getParent() instanceof PsiMethod method) {
-                                    if (method.getReturnTypeElement() == null) {
-                                        replacements.insertBefore(method.getNameIdentifier(), modifierStr + " ");
-                                    } else {
-                                        replacements.insertBefore(method.getReturnTypeElement(), modifierStr + " ");
-                                    }
-                                } else if (modifiers.getParent() instanceof PsiField field && field.getTypeElement() != null) {
-                                    replacements.insertBefore(field.getTypeElement(), modifierStr + " ");
-                                } else {
-                                    // If all fails, insert before the other modifiers and move on
-                                    replacements.insertBefore(modifiers, modifierStr + " ");
+                    if (keywords.firstModifierKeyword != null) {
+                        // If there's other modifiers, insert just before the first
+                        replacements.insertBefore(keywords.firstModifierKeyword, modifierStr + " ");
+                    } else {
+                        // Otherwise insert before the declaration:
+                        // - element type (interface, enum, class, record) in the case of classes
+                        // - return type in the case of methods
+                        // - identifier in the case of constructors
+                        // - type in the case of fields
+                        if (modifiers.getParent() instanceof PsiClass cls) {
+                            final String typeKeyword = detectKind(cls);
+
+                            PsiElement next = modifiers;
+                            while ((next = next.getNextSibling()) != null) {
+                                if (next instanceof PsiKeyword kw && kw.getText().equals(typeKeyword)) {
+                                    replacements.insertBefore(kw, modifierStr + " ");
+                                    break;
                                 }
-                            });
+                            }
+                        } else if (modifiers.getParent() instanceof PsiMethod method) {
+                            if (method.getReturnTypeElement() == null) {
+                                replacements.insertBefore(method.getNameIdentifier(), modifierStr + " ");
+                            } else {
+                                replacements.insertBefore(method.getReturnTypeElement(), modifierStr + " ");
+                            }
+                        } else if (modifiers.getParent() instanceof PsiField field && field.getTypeElement() != null) {
+                            replacements.insertBefore(field.getTypeElement(), modifierStr + " ");
+                        } else {
+                            // If all fails, insert before the other modifiers and move on
+                            replacements.insertBefore(modifiers, modifierStr + " ");
+                        }
+                    }
                 }
             }
         }
@@ -244,7 +251,7 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
      * to bytecode instead.
      * It also handles additional validation for record constructors, which have special rules.
      */
-    private void checkImplicitConstructor(PsiClass psiClass, String className, @Nullable Transformation classAt) {
+    private void checkImplicitConstructor(PsiClass psiClass, String className, AccessTransformerIndex.ClassTargets targets, @Nullable Transformation classAt) {
         if (psiClass.isRecord()) {
             StringBuilder descriptor = new StringBuilder("(");
             for (PsiRecordComponent recordComponent : psiClass.getRecordComponents()) {
@@ -253,21 +260,20 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
             descriptor.append(")V");
             var desc = descriptor.toString();
 
-            var implicitAT = pendingATs.remove(new Target.MethodTarget(className, "<init>", desc));
+            var implicitAT = index.apply(targets.getMethodId("<init>", desc));
             if (implicitAT != null && implicitAT.modifier() != detectModifier(psiClass.getModifierList(), classAt)) {
                 error(implicitAT, "Access transformer targeting the implicit constructor of %s is not valid, as a record's constructor must have the same access level as the record class. Please AT the record too: \"%s\"", className,
                         implicitAT.modifier().toString().toLowerCase(Locale.ROOT) + " " + className);
-                pendingATs.remove(new Target.MethodTarget(className, "<init>", desc));
+                index.apply(targets.getMethodId("<init>", desc));
             } else if (classAt != null && detectModifier(psiClass.getModifierList(), null).ordinal() > classAt.modifier().ordinal() && implicitAT == null) {
                 error(classAt, "Access transformer targeting record class %s attempts to widen its access without widening the constructor's access. You must AT the constructor too: \"%s\"", className,
                         classAt.modifier().toString().toLowerCase(Locale.ROOT) + " " + className + " <init>" + desc);
-                pendingATs.remove(new Target.MethodTarget(className, "<init>", desc));
+                index.apply(targets.getMethodId("<init>", desc));
             }
         } else if (psiClass.getClassKind() == JvmClassKind.CLASS) {
             // When widening the access of a class, we must take into consideration the fact that implicit constructors follow the access level of their owner
             if (psiClass.getConstructors().length == 0) {
-                var constructorTarget = new Target.MethodTarget(className, "<init>", PsiHelper.getImplicitConstructorSignature(psiClass));
-                var constructorAt = pendingATs.remove(constructorTarget);
+                var constructorAt = index.apply(targets.getMethodId("<init>", PsiHelper.getImplicitConstructorSignature(psiClass)));
 
                 if (classAt != null && detectModifier(psiClass.getModifierList(), null).ordinal() > classAt.modifier().ordinal()) {
                     // If we cannot find an implicit constructor, we need to inject it if the AT doesn't match the expected constructor access
@@ -328,8 +334,21 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
         return b == null ? a : a.mergeStates(b);
     }
 
-    private static Target.MethodTarget method(String owner, PsiMethod method) {
-        return new Target.MethodTarget(owner, PsiHelper.getBinaryMethodName(method), PsiHelper.getBinaryMethodSignature(method));
+    @Nullable
+    private Transformation claimFieldAT(AccessTransformerIndex.ClassTargets targets, PsiField field) {
+        return index.apply(targets.getFieldId(field.getName()));
+    }
+
+    /**
+     * Only builds the descriptor of the method if its class has ATs for methods with the same name.
+     */
+    @Nullable
+    private Transformation claimMethodAT(AccessTransformerIndex.ClassTargets targets, PsiMethod method) {
+        var name = PsiHelper.getBinaryMethodName(method);
+        if (!targets.hasMethod(name)) {
+            return null;
+        }
+        return index.apply(targets.getMethodId(name, PsiHelper.getBinaryMethodSignature(method)));
     }
 
     private static Transformation.Modifier detectModifier(PsiModifierList owner, @Nullable Transformation trans) {
@@ -344,4 +363,69 @@ class ApplyATsVisitor extends PsiRecursiveElementVisitor {
         }
         return Transformation.Modifier.DEFAULT;
     }
+
+    /**
+     * The keywords of a modifier list, which are classified in a single pass over its children.
+     * A visitor reuses one instance for all the modifier lists it modifies.
+     */
+    private static final class ModifierKeywords {
+        /**
+         * Whether the modifier list has no children at all, not even annotations.
+         */
+        boolean empty;
+        /**
+         * The first {@code public}, {@code protected} or {@code private} keyword.
+         */
+        @Nullable
+        PsiKeyword accessKeyword;
+        @Nullable
+        PsiKeyword privateKeyword;
+        @Nullable
+        PsiKeyword finalKeyword;
+        /**
+         * The first keyword of any modifier.
+         */
+        @Nullable
+        PsiKeyword firstModifierKeyword;
+
+        void classify(PsiModifierList modifiers) {
+            accessKeyword = null;
+            privateKeyword = null;
+            finalKeyword = null;
+            firstModifierKeyword = null;
+
+            var child = modifiers.getFirstChild();
+            empty = child == null;
+            for (; child != null; child = child.getNextSibling()) {
+                if (!(child instanceof PsiKeyword kw)) {
+                    continue;
+                }
+
+                var text = kw.getText();
+                switch (text) {
+                    case PsiModifier.PUBLIC, PsiModifier.PROTECTED -> setAccessKeyword(kw);
+                    case PsiModifier.PRIVATE -> {
+                        setAccessKeyword(kw);
+                        if (privateKeyword == null) {
+                            privateKeyword = kw;
+                        }
+                    }
+                    case PsiModifier.FINAL -> {
+                        if (finalKeyword == null) {
+                            finalKeyword = kw;
+                        }
+                    }
+                }
+                if (firstModifierKeyword == null && MODIFIERS.contains(text)) {
+                    firstModifierKeyword = kw;
+                }
+            }
+        }
+
+        private void setAccessKeyword(PsiKeyword kw) {
+            if (accessKeyword == null) {
+                accessKeyword = kw;
+            }
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package net.neoforged.jst.accesstransformers;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal reader for class files, which only reads the declarations that ATs can target.
+ */
+final class ClassFileReader {
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_SYNTHETIC = 0x1000;
+    static final int ACC_ENUM = 0x4000;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private ClassFileReader() {
+    }
+
+    /**
+     * @param bytes The content of a class file.
+     * @throws IOException If the content is not a valid class file.
+     */
+    static ClassFile read(byte[] bytes) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor_version
+        in.readUnsignedShort(); // major_version
+
+        // Only UTF-8 entries and the names of classes are needed
+        var constantPoolCount = in.readUnsignedShort();
+        var utf8 = new String[constantPoolCount];
+        var classNames = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            var tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8 -> utf8[i] = in.readUTF();
+                case CONSTANT_CLASS -> classNames[i] = in.readUnsignedShort();
+                case CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> in.skipNBytes(2);
+                case CONSTANT_METHOD_HANDLE -> in.skipNBytes(3);
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF,
+                     CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> in.skipNBytes(4);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    in.skipNBytes(8);
+                    i++; // Takes up two entries
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+
+        var access = in.readUnsignedShort();
+        var thisClass = in.readUnsignedShort();
+        var name = toBinaryName(utf8[classNames[thisClass]]);
+        in.readUnsignedShort(); // super_class
+        in.skipNBytes(2L * in.readUnsignedShort()); // interfaces
+
+        var fields = readMembers(in, utf8);
+        var methods = readMembers(in, utf8);
+
+        String outerName = null;
+        var attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            var attributeName = utf8[in.readUnsignedShort()];
+            var length = in.readInt();
+            if (!"InnerClasses".equals(attributeName)) {
+                in.skipNBytes(Integer.toUnsignedLong(length));
+                continue;
+            }
+
+            var classCount = in.readUnsignedShort();
+            for (int j = 0; j < classCount; j++) {
+                var innerClass = in.readUnsignedShort();
+                var outerClass = in.readUnsignedShort();
+                in.readUnsignedShort(); // inner_name_index
+                in.readUnsignedShort(); // inner_class_access_flags
+                // Local and anonymous classes have no outer class
+                if (innerClass == thisClass && outerClass != 0) {
+                    outerName = toBinaryName(utf8[classNames[outerClass]]);
+                }
+            }
+        }
+
+        return new ClassFile(name, access, outerName, fields, methods);
+    }
+
+    private static List<Member> readMembers(DataInputStream in, String[] utf8) throws IOException {
+        var count = in.readUnsignedShort();
+        var members = new ArrayList<Member>(count);
+        for (int i = 0; i < count; i++) {
+            var access = in.readUnsignedShort();
+            var name = utf8[in.readUnsignedShort()];
+            var descriptor = utf8[in.readUnsignedShort()];
+            var attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.readUnsignedShort(); // attribute_name_index
+                in.skipNBytes(Integer.toUnsignedLong(in.readInt()));
+            }
+            members.add(new Member(access, name, descriptor));
+        }
+        return members;
+    }
+
+    private static String toBinaryName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * @param name      The binary name of the class, using {@code .} as the package separator.
+     * @param outerName The binary name of the class this class is a member of, or null if it is a top-level, local or anonymous class.
+     */
+    record ClassFile(String name, int access, @Nullable String outerName, List<Member> fields, List<Member> methods) {
+        boolean isInterface() {
+            return (access & ACC_INTERFACE) != 0;
+        }
+
+        boolean isEnum() {
+            return (access & ACC_ENUM) != 0;
+        }
+    }
+
+    record Member(int access, String name, String descriptor) {
+        boolean isStatic() {
+            return (access & ACC_STATIC) != 0;
+        }
+
+        boolean isFinal() {
+            return (access & ACC_FINAL) != 0;
+        }
+
+        boolean isSynthetic() {
+            return (access & ACC_SYNTHETIC) != 0;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package net.neoforged.jst.accesstransformers;
+
+import net.neoforged.accesstransformer.parser.Target;
+import net.neoforged.accesstransformer.parser.Transformation;
+import net.neoforged.jst.api.Logger;
+import net.neoforged.problems.Problem;
+import net.neoforged.problems.ProblemReporter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipFile;
+
+/**
+ * Validates ATs against the class files in a jar instead of the sources.
+ * <p>
+ * The targets found in the jar are marked as applied in the index, so that the remaining targets are reported as
+ * missing like in a regular run. The checks that don't depend on the sources are run on the found targets.
+ * Implicit constructors are declared in class files, so they are validated like any other method.
+ */
+class ClassFileValidator {
+    private final AccessTransformerIndex index;
+    private final Logger logger;
+    private final ProblemReporter problemReporter;
+    boolean errored = false;
+
+    ClassFileValidator(AccessTransformerIndex index, Logger logger, ProblemReporter problemReporter) {
+        this.index = index;
+        this.logger = logger;
+        this.problemReporter = problemReporter;
+    }
+
+    /**
+     * @param topLevelClasses The binary names of the top-level classes with ATs, only their class files are read.
+     */
+    void validate(Path jar, Set<String> topLevelClasses) throws IOException {
+        try (var zipFile = new ZipFile(jar.toFile())) {
+            var entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                var entry = entries.nextElement();
+                var path = entry.getName();
+                if (entry.isDirectory() || !path.endsWith(".class") || path.startsWith("META-INF/")) {
+                    continue;
+                }
+
+                var className = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+                var innerClassSeparator = className.indexOf('$');
+                if (!topLevelClasses.contains(innerClassSeparator == -1 ? className : className.substring(0, innerClassSeparator))) {
+                    continue;
+                }
+
+                try (var in = zipFile.getInputStream(entry)) {
+                    validate(ClassFileReader.read(in.readAllBytes()));
+                } catch (IOException e) {
+                    throw new IOException("Failed to read class file " + path + " from " + jar, e);
+                }
+            }
+        }
+    }
+
+    private void validate(ClassFileReader.ClassFile classFile) {
+        var className = classFile.name();
+        logger.debug("Validating ATs for %s", className);
+
+        var classAt = index.apply(new Target.ClassTarget(className));
+        if (checkValid(classAt) && classAt.finalState() == Transformation.FinalState.MAKEFINAL && (classFile.access() & ClassFileReader.ACC_FINAL) == 0) {
+            error(classAt, "Access transformer attempted to make %s final. Was non-final", className);
+        }
+        // Class targets for inner classes also generate an InnerClassTarget
+        if (classFile.outerName() != null) {
+            index.apply(new Target.InnerClassTarget(classFile.outerName(), className));
+        }
+
+        // Wildcards only apply to the members declared in the sources, so members generated by the compiler and
+        // static initializers are only validated against ATs that explicitly target them
+        var targets = index.get(className);
+        var fieldWildcard = index.apply(targets.getFieldWildcardId());
+        for (var field : classFile.fields()) {
+            var at = merge(field.isSynthetic() ? null : fieldWildcard, index.apply(targets.getFieldId(field.name())));
+            if (checkValid(at)) {
+                checkFinal(at, field, className);
+            }
+        }
+
+        var methodWildcard = index.apply(targets.getMethodWildcardId());
+        for (var method : classFile.methods()) {
+            var wildcard = method.isSynthetic() || method.name().equals("<clinit>") ? null : methodWildcard;
+            var at = merge(wildcard, index.apply(targets.getMethodId(method.name(), method.descriptor())));
+            if (!checkValid(at)) {
+                continue;
+            }
+
+            var targetAcc = at.modifier();
+            var isConstructor = method.name().equals("<init>");
+            // Non-static interface methods can only be made public, as they must be defined as default
+            if (classFile.isInterface() && !method.isStatic() && targetAcc != Transformation.Modifier.PUBLIC) {
+                error(at, "Access transformer targeting %s attempted to make a non-static interface method %s. They can only be made public.", describe(method, className), targetAcc);
+            } else if (classFile.isEnum() && isConstructor && targetAcc.ordinal() < Transformation.Modifier.DEFAULT.ordinal()) {
+                // Enum constructors can at best be package-private
+                error(at, "Access transformer targeting %s attempted to make an enum constructor %s", describe(method, className), targetAcc);
+            }
+            checkFinal(at, method, className);
+        }
+    }
+
+    /**
+     * @return Whether the AT exists and is valid.
+     */
+    private boolean checkValid(@Nullable Transformation at) {
+        if (at == null) {
+            return false;
+        }
+        if (!at.isValid()) {
+            error(at, "Found invalid access transformer. Final state: conflicting");
+            return false;
+        }
+        return true;
+    }
+
+    private void checkFinal(Transformation at, ClassFileReader.Member member, String className) {
+        if (at.finalState() == Transformation.FinalState.MAKEFINAL && !member.isFinal()) {
+            error(at, "Access transformer attempted to make %s final. Was non-final", describe(member, className));
+        }
+    }
+
+    private static String describe(ClassFileReader.Member member, String className) {
+        return (member.name().equals("<init>") ? "constructor" : member.name()) + " of " + className;
+    }
+
+    @Nullable
+    private static Transformation merge(@Nullable Transformation wildcard, @Nullable Transformation at) {
+        if (wildcard == null) {
+            return at;
+        }
+        return at == null ? wildcard : wildcard.mergeStates(at);
+    }
+
+    private void error(Transformation transformation, String message, Object... args) {
+        var problem = Problem.builder(AccessTransformersTransformer.INVALID_AT)
+                .contextualLabel(String.format(Locale.ROOT, message, args))
+                .build();
+        AccessTransformersTransformer.reportProblem(problemReporter, transformation, problem);
+
+        var formatArgs = new ArrayList<>();
+        Collections.addAll(formatArgs, args);
+        formatArgs.add(transformation);
+        logger.error(message + " at %s", formatArgs.toArray());
+        errored = true;
+    }
+}
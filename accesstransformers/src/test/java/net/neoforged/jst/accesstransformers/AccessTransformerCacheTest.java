@@ -0,0 +1,92 @@
+package net.neoforged.jst.accesstransformers;
+
+import net.neoforged.accesstransformer.parser.Target;
+import net.neoforged.accesstransformer.parser.Transformation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessTransformerCacheTest {
+    private static final String HASH = "0123456789abcdef";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStoredTransformationsAreLoaded() {
+        var atFile = tempDir.resolve("accesstransformer.cfg");
+        var cache = new AccessTransformerCache(tempDir.resolve("cache"));
+        var target = new Target.FieldTarget("pkg.Present", "field");
+        var transformation = new Transformation(Transformation.Modifier.PUBLIC, Transformation.FinalState.REMOVEFINAL, atFile + ":1", List.of(atFile + ":1"));
+        cache.store(HASH, atFile, Map.of(target, transformation));
+
+        var movedAtFile = tempDir.resolve("moved.cfg");
+        var loaded = cache.load(HASH, movedAtFile);
+        assertEquals(1, loaded.size());
+        var loadedTransformation = loaded.get(target);
+        assertEquals(Transformation.Modifier.PUBLIC, loadedTransformation.modifier());
+        assertEquals(Transformation.FinalState.REMOVEFINAL, loadedTransformation.finalState());
+        // Origins in the AT file are resolved against the file being loaded
+        assertEquals(List.of(movedAtFile + ":1"), loadedTransformation.origins());
+        assertTrue(cache.getStoreFailures().isEmpty());
+    }
+
+    @Test
+    void testCorruptEntriesAreMisses() throws IOException {
+        var atFile = tempDir.resolve("accesstransformer.cfg");
+        var cacheDir = tempDir.resolve("cache");
+        var cache = new AccessTransformerCache(cacheDir);
+        var cacheFile = cacheDir.resolve(HASH + ".bin");
+        assertNull(cache.load(HASH, atFile));
+
+        cache.store(HASH, atFile, Map.of(new Target.ClassTarget("pkg.Present"),
+                new Transformation(Transformation.Modifier.PUBLIC, Transformation.FinalState.LEAVE, null, List.of())));
+        var data = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(data, data.length - 1));
+        assertNull(cache.load(HASH, atFile));
+
+        // A class name that is not valid modified UTF-8
+        var invalidUtf = Arrays.copyOf(data, data.length);
+        invalidUtf[15] = (byte) 0xFF;
+        Files.write(cacheFile, invalidUtf);
+        assertNull(cache.load(HASH, atFile));
+
+        Files.write(cacheFile, header(-1));
+        assertNull(cache.load(HASH, atFile));
+        Files.write(cacheFile, header(Integer.MAX_VALUE));
+        assertNull(cache.load(HASH, atFile));
+    }
+
+    @Test
+    void testStoreFailuresAreRecorded() throws IOException {
+        // The cache directory can't be created where a file exists
+        var cacheDir = Files.createFile(tempDir.resolve("cache"));
+        var cache = new AccessTransformerCache(cacheDir);
+
+        cache.store(HASH, tempDir.resolve("accesstransformer.cfg"), Map.of());
+
+        assertEquals(1, cache.getStoreFailures().size());
+    }
+
+    private static byte[] header(int count) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(0x4A535441);
+            out.writeInt(1);
+            out.writeInt(count);
+        }
+        return bytes.toByteArray();
+    }
+}
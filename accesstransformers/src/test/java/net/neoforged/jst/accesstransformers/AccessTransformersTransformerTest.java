@@ -0,0 +1,42 @@
+package net.neoforged.jst.accesstransformers;
+
+import net.neoforged.jst.api.FileEntries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class AccessTransformersTransformerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testValidationOnlyRunsHaveDifferentFingerprints() throws IOException {
+        var atFile = tempDir.resolve("accesstransformer.cfg");
+        Files.writeString(atFile, "public pkg.Present field\n");
+        var sourceRoot = Files.createDirectories(tempDir.resolve("src"));
+        var source = Files.createDirectories(sourceRoot.resolve("pkg")).resolve("Present.java");
+        Files.writeString(source, "package pkg;\n");
+        var fileEntry = FileEntries.ofPath(sourceRoot, source);
+
+        var applying = createTransformer(atFile, null);
+        var validating = createTransformer(atFile, tempDir.resolve("classes.jar"));
+
+        assertEquals(applying.getCacheFingerprint(fileEntry), createTransformer(atFile, null).getCacheFingerprint(fileEntry));
+        assertNotEquals(applying.getCacheFingerprint(fileEntry), validating.getCacheFingerprint(fileEntry));
+    }
+
+    private static AccessTransformersTransformer createTransformer(Path atFile, Path validateAgainst) {
+        var transformer = new AccessTransformersTransformer();
+        transformer.atFiles = List.of(atFile);
+        transformer.validateAgainst = validateAgainst;
+        transformer.prepareAsync(Runnable::run).join();
+        return transformer;
+    }
+}
@@ -0,0 +1,134 @@
+package net.neoforged.jst.accesstransformers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassFileReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsMembersAfterWideConstants() throws IOException {
+        // Long and double constants take up two constant pool entries, so the names after them are only found if
+        // the entries are counted correctly
+        compile("pkg/Constants.java", """
+                package pkg;
+
+                public class Constants {
+                    static final long LONG = 1234567890123L;
+                    static final double DOUBLE = 1.5;
+                    private long value = LONG;
+                    double scaled = DOUBLE * 2;
+
+                    final long get(double factor) {
+                        return (long) (value * factor) + 9876543210L;
+                    }
+                }
+                """);
+
+        var classFile = read("pkg/Constants.class");
+        assertEquals("pkg.Constants", classFile.name());
+        assertNull(classFile.outerName());
+        assertFalse(classFile.isInterface());
+        assertFalse(classFile.isEnum());
+
+        assertEquals(List.of("LONG:J", "DOUBLE:D", "value:J", "scaled:D"), describe(classFile.fields()));
+        assertTrue(classFile.fields().get(0).isStatic());
+        assertTrue(classFile.fields().get(0).isFinal());
+        assertFalse(classFile.fields().get(2).isFinal());
+
+        // The implicit constructor is declared in the class file
+        assertEquals(List.of("<init>:()V", "get:(D)J"), describe(classFile.methods()));
+        assertTrue(classFile.methods().get(1).isFinal());
+    }
+
+    @Test
+    void testReadsOuterClassOfInnerClasses() throws IOException {
+        compile("pkg/Outer.java", """
+                package pkg;
+
+                public interface Outer {
+                    void run();
+
+                    enum Inner {
+                        VALUE;
+                    }
+                }
+                """);
+
+        var outer = read("pkg/Outer.class");
+        assertTrue(outer.isInterface());
+        assertNull(outer.outerName());
+        assertFalse(outer.methods().get(0).isStatic());
+
+        var inner = read("pkg/Outer$Inner.class");
+        assertEquals("pkg.Outer$Inner", inner.name());
+        assertEquals("pkg.Outer", inner.outerName());
+        assertTrue(inner.isEnum());
+        assertTrue(describe(inner.methods()).contains("<init>:(Ljava/lang/String;I)V"));
+    }
+
+    @Test
+    void testReadsSyntheticMembers() throws IOException {
+        compile("pkg/Generated.java", """
+                package pkg;
+
+                public class Generated {
+                    static final Runnable TASK = () -> {};
+
+                    class Inner {
+                    }
+                }
+                """);
+
+        var outer = read("pkg/Generated.class");
+        assertEquals(List.of("<init>:()V", "lambda$static$0:()V", "<clinit>:()V"), describe(outer.methods()));
+        assertFalse(outer.methods().get(0).isSynthetic());
+        assertTrue(outer.methods().get(1).isSynthetic());
+        // Static initializers are not synthetic, so they are identified by their name
+        assertFalse(outer.methods().get(2).isSynthetic());
+
+        var inner = read("pkg/Generated$Inner.class");
+        assertEquals(List.of("this$0:Lpkg/Generated;"), describe(inner.fields()));
+        assertTrue(inner.fields().get(0).isSynthetic());
+    }
+
+    @Test
+    void testRejectsOtherFiles() {
+        assertThrows(IOException.class, () -> ClassFileReader.read("not a class file".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void compile(String path, String source) throws IOException {
+        var sourceFile = tempDir.resolve("src").resolve(path);
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            var success = compiler.getTask(null, fileManager, null, List.of("-d", tempDir.resolve("classes").toString()), null,
+                    fileManager.getJavaFileObjectsFromPaths(List.of(sourceFile))).call();
+            assertTrue(success, "Compiling " + path);
+        }
+    }
+
+    private ClassFileReader.ClassFile read(String path) throws IOException {
+        return ClassFileReader.read(Files.readAllBytes(tempDir.resolve("classes").resolve(path)));
+    }
+
+    private static List<String> describe(List<ClassFileReader.Member> members) {
+        return members.stream().map(member -> member.name() + ":" + member.descriptor()).toList();
+    }
+}
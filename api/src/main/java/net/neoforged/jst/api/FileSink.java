@@ -14,7 +14,27 @@ public interface FileSink extends AutoCloseable {
 
     boolean isOrdered();
 
+    /**
+     * @return {@code true} if the order in which entries are written is visible in the output, such as the order
+     * of entries in an archive. When entries are processed in parallel, they are then still written in the order
+     * of the source, otherwise they are written as soon as they are done.
+     */
+    default boolean isOrderSensitive() {
+        return true;
+    }
+
     void putDirectory(String relativePath) throws IOException;
 
     void putFile(String relativePath, FileTime lastModified, byte[] content) throws IOException;
+
+    /**
+     * Copies a file entry to this sink without changing it.
+     * <p>
+     * Sinks can override this to transfer entries from sources they know more efficiently.
+     */
+    default void copyFile(FileEntry entry) throws IOException {
+        try (var in = entry.openInputStream()) {
+            putFile(entry.relativePath(), entry.lastModified(), in.readAllBytes());
+        }
+    }
 }
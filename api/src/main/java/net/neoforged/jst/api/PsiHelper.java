@@ -30,14 +30,35 @@ public final class PsiHelper {
     }
 
     public static Iterator<String> getOverloadedSignatures(PsiMethod method) {
-        final List<String> parameters = new ArrayList<>();
-        final var returnType = Optional.ofNullable(method.getReturnType()).orElse(PsiTypes.voidType());
-        String returnTypeRepresentation = ClassUtil.getBinaryPresentation(returnType);
-        if (returnTypeRepresentation.isEmpty()) {
-            System.err.println("Failed to create binary representation for type " + returnType.getCanonicalText());
-            returnTypeRepresentation = "ERROR";
-        }
-        final String retRep = returnTypeRepresentation;
+        final List<String> parameters = getParameterDescriptors(method);
+        final String retRep = getReturnTypeDescriptor(method);
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !parameters.isEmpty();
+            }
+
+            @Override
+            public String next() {
+                StringBuilder signature = new StringBuilder();
+                signature.append("(");
+                parameters.forEach(signature::append);
+                signature.append(")").append(retRep);
+                parameters.remove(parameters.size() - 1);
+                return signature.toString();
+            }
+        };
+    }
+
+    /**
+     * Gets the descriptors of the parameter types of the given method, one per parameter, including the implicit
+     * parameters of constructors. The two implicit parameters of enum constructors are a single entry, so that
+     * a prefix of the list never separates them.
+     */
+    public static List<String> getParameterDescriptors(PsiMethod method) {
+        var psiParameters = method.getParameterList().getParameters();
+        var parameters = new ArrayList<String>(psiParameters.length + 1);
 
         // Add implicit constructor parameters
         // Private enumeration constructors have two hidden parameters (enun name+ordinal)
@@ -54,7 +75,7 @@ public final class PsiHelper {
             parameters.add(par.toString());
         }
 
-        for (PsiParameter param : method.getParameterList().getParameters()) {
+        for (PsiParameter param : psiParameters) {
             var binaryPresentation = ClassUtil.getBinaryPresentation(param.getType());
             if (binaryPresentation.isEmpty()) {
                 System.err.println("Failed to create binary representation for type " + param.getType().getCanonicalText());
@@ -62,23 +83,17 @@ public final class PsiHelper {
             }
             parameters.add(binaryPresentation);
         }
+        return parameters;
+    }
 
-        return new Iterator<>() {
-            @Override
-            public boolean hasNext() {
-                return !parameters.isEmpty();
-            }
-
-            @Override
-            public String next() {
-                StringBuilder signature = new StringBuilder();
-                signature.append("(");
-                parameters.forEach(signature::append);
-                signature.append(")").append(retRep);
-                parameters.remove(parameters.size() - 1);
-                return signature.toString();
-            }
-        };
+    public static String getReturnTypeDescriptor(PsiMethod method) {
+        var returnType = Optional.ofNullable(method.getReturnType()).orElse(PsiTypes.voidType());
+        String returnTypeRepresentation = ClassUtil.getBinaryPresentation(returnType);
+        if (returnTypeRepresentation.isEmpty()) {
+            System.err.println("Failed to create binary representation for type " + returnType.getCanonicalText());
+            returnTypeRepresentation = "ERROR";
+        }
+        return returnTypeRepresentation;
     }
 
     public static String getImplicitConstructorSignature(PsiClass psiClass) {
@@ -0,0 +1,62 @@
+package net.neoforged.jst.api;
+
+import com.intellij.psi.JavaRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCodeBlock;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiExpression;
+import com.intellij.psi.PsiExpressionList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A recursive visitor that only visits declarations, for transformers that don't need to look at code.
+ * <p>
+ * Method bodies, initializer blocks, field initializers and the arguments of enum constants are not visited.
+ * Since IntelliJ parses code blocks lazily, the bodies of methods are never parsed when using this visitor.
+ * <p>
+ * Local and anonymous classes are declared inside of code, so they are only visited if requested. Finding them
+ * requires parsing the code, but only the classes found in it are passed to this visitor.
+ */
+public class PsiStructuralElementVisitor extends PsiElementVisitor {
+    private final boolean visitLocalClasses;
+
+    public PsiStructuralElementVisitor() {
+        this(false);
+    }
+
+    /**
+     * @param visitLocalClasses whether local and anonymous classes declared in code should be visited
+     */
+    public PsiStructuralElementVisitor(boolean visitLocalClasses) {
+        this.visitLocalClasses = visitLocalClasses;
+    }
+
+    @Override
+    public void visitElement(@NotNull PsiElement element) {
+        visitChildren(element);
+    }
+
+    /**
+     * Visits the children of {@code element}, skipping any code.
+     */
+    protected final void visitChildren(PsiElement element) {
+        for (var child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!isCode(child)) {
+                child.accept(this);
+            } else if (visitLocalClasses) {
+                child.accept(new JavaRecursiveElementWalkingVisitor() {
+                    @Override
+                    public void visitClass(@NotNull PsiClass aClass) {
+                        // The members of the class are visited structurally again
+                        aClass.accept(PsiStructuralElementVisitor.this);
+                    }
+                });
+            }
+        }
+    }
+
+    private static boolean isCode(PsiElement element) {
+        return element instanceof PsiCodeBlock || element instanceof PsiExpression || element instanceof PsiExpressionList;
+    }
+}
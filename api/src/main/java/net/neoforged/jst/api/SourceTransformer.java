@@ -1,8 +1,12 @@
 package net.neoforged.jst.api;
 
 import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Transformers are created through {@link SourceTransformerPlugin plugins}, and handle source replacements.
@@ -11,10 +15,25 @@ import java.util.List;
  * It is <b>strongly recommended</b> that transformers prefix their options with the transformer name.
  */
 public interface SourceTransformer {
+    /**
+     * Invoked before the IntelliJ environment is set up, to load data from CLI parameters in the background
+     * while it is.
+     * <p>
+     * The returned future is awaited before {@link #beforeRun} is invoked, and the run fails if it completes
+     * exceptionally. The IntelliJ environment must not be accessed until then.
+     *
+     * @param executor the executor to load data on
+     * @return a future that completes once the data is loaded
+     */
+    default CompletableFuture<?> prepareAsync(Executor executor) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Invoked before source files are visited for transformation.
      * <p>
-     * Can be used for loading data from CLI parameters.
+     * Can be used for loading data from CLI parameters that requires the IntelliJ environment, or for reporting
+     * problems with the data loaded by {@link #prepareAsync}.
      *
      * @param context the transform context
      */
@@ -45,6 +64,65 @@ public interface SourceTransformer {
         return true;
     }
 
+    /**
+     * Returns the classes this transformer may change, so that files which declare none of them can be copied
+     * without being parsed. Classes are identified by their binary name with {@code /} as the package separator,
+     * like {@code com/example/Outer$Inner}.
+     * <p>
+     * If any enabled transformer returns {@code null}, all files are parsed and visited.
+     * <p>
+     * Invoked after {@link #beforeRun}.
+     *
+     * @return the names of the affected classes, or {@code null} if this transformer may change any file
+     */
+    @Nullable
+    default Collection<String> getAffectedClasses() {
+        return null;
+    }
+
+    /**
+     * Returns a fingerprint of everything besides the content of {@code fileEntry} that influences how this
+     * transformer transforms it, such as the data loaded from the transformers options.
+     * <p>
+     * When an incremental cache is in use, the result of transforming a file is reused in later runs as long as the
+     * file content and the fingerprints of all transformers are unchanged. The cache is only used for files whose
+     * top-level classes are named after the path of the file, so transformers may derive the classes affected by
+     * their data from {@link FileEntry#relativePath()}.
+     * <p>
+     * Invoked after {@link #beforeRun}.
+     *
+     * @param fileEntry the file entry about to be transformed
+     * @return the fingerprint, or {@code null} if the transformation of this file cannot be cached
+     */
+    @Nullable
+    default String getCacheFingerprint(FileEntry fileEntry) {
+        return null;
+    }
+
+    /**
+     * Invoked after {@code psiFile} was transformed while an incremental cache is in use, to decide whether the
+     * result may be reused by later runs.
+     * <p>
+     * Transformers that track state across files should only return {@code true} if {@link #visitCachedFile}
+     * can restore that state without the file being visited.
+     *
+     * @param fileEntry the file entry that was transformed
+     * @param psiFile   the file that was transformed
+     * @return {@code true} if the result can be cached
+     */
+    default boolean isCacheable(FileEntry fileEntry, PsiFile psiFile) {
+        return true;
+    }
+
+    /**
+     * Invoked instead of {@link #visitFile} and {@link #beforeReplacement} when the result of transforming
+     * {@code fileEntry} is taken from the incremental cache.
+     *
+     * @param fileEntry the file entry whose cached result is used
+     */
+    default void visitCachedFile(FileEntry fileEntry) {
+    }
+
     /**
      * Visit the given {@code psiFile} for transformation.
      *
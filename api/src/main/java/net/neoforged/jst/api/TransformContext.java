@@ -2,8 +2,12 @@ package net.neoforged.jst.api;
 
 import net.neoforged.problems.ProblemReporter;
 
-public record TransformContext(IntelliJEnvironment environment, FileSource source, FileSink sink, Logger logger, ProblemReporter problemReporter) {
+public record TransformContext(IntelliJEnvironment environment, FileSource source, FileSink sink, Logger logger, ProblemReporter problemReporter, VerificationLevel verificationLevel) {
     public TransformContext(IntelliJEnvironment environment, FileSource source, FileSink sink, Logger logger) {
         this(environment, source, sink, logger, ProblemReporter.NOOP);
     }
+
+    public TransformContext(IntelliJEnvironment environment, FileSource source, FileSink sink, Logger logger, ProblemReporter problemReporter) {
+        this(environment, source, sink, logger, problemReporter, VerificationLevel.FULL);
+    }
 }
@@ -0,0 +1,38 @@
+package net.neoforged.jst.api;
+
+/**
+ * How thoroughly transformers run sanity checks that guard against inconsistencies in the environment, such as
+ * classes being loaded twice. These checks don't change the output of a successful run.
+ */
+public enum VerificationLevel {
+    /**
+     * No sanity checks are run.
+     */
+    NONE,
+    /**
+     * Sanity checks are run for a subset of the checked elements, which is chosen by their name so the same elements
+     * are checked in every run.
+     */
+    SAMPLE,
+    /**
+     * Sanity checks are run for all elements.
+     */
+    FULL;
+
+    /**
+     * With {@link #SAMPLE}, about one in this many elements is checked. Must be a power of two.
+     */
+    private static final int SAMPLE_RATE = 16;
+
+    /**
+     * @param name The name identifying the element, such as the qualified name of a class.
+     * @return Whether the sanity check for the element should be run.
+     */
+    public boolean shouldVerify(String name) {
+        return switch (this) {
+            case NONE -> false;
+            case SAMPLE -> (name.hashCode() & (SAMPLE_RATE - 1)) == 0;
+            case FULL -> true;
+        };
+    }
+}
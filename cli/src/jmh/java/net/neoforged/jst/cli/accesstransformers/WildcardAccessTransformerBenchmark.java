@@ -0,0 +1,105 @@
+package net.neoforged.jst.cli.accesstransformers;
+
+import com.intellij.psi.PsiFile;
+import net.neoforged.jst.accesstransformers.AccessTransformersTransformer;
+import net.neoforged.jst.api.Logger;
+import net.neoforged.jst.api.Replacements;
+import net.neoforged.jst.api.TransformContext;
+import net.neoforged.jst.cli.intellij.IntelliJEnvironmentImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to apply field and method wildcard ATs to a class with many members, which rewrites
+ * the modifiers of every member.
+ * Run it with the {@code gc} profiler to compare the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WildcardAccessTransformerBenchmark {
+    private static final String[] MODIFIERS = {
+            "", "private ", "protected ", "public ", "final ", "private final ", "protected static final ",
+            "@Deprecated ", "@Deprecated private ", "static synchronized "
+    };
+
+    @Param({"1000"})
+    public int memberCount;
+
+    private IntelliJEnvironmentImpl ijEnv;
+    private Path atFile;
+    private PsiFile psiFile;
+    private AccessTransformersTransformer transformer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var logger = new Logger(null, null);
+        ijEnv = new IntelliJEnvironmentImpl(logger);
+        psiFile = ijEnv.parseFileFromMemory("Wide.java", generateSource(new Random(0), memberCount));
+        atFile = Files.createTempFile("jst-benchmark", ".cfg");
+        Files.writeString(atFile, """
+                public-f pkg.Wide *
+                public-f pkg.Wide *()
+                """);
+    }
+
+    /**
+     * Wildcard ATs are only applied once, so each invocation needs a new transformer.
+     */
+    @Setup(Level.Invocation)
+    public void prepareTransformer() {
+        transformer = new AccessTransformersTransformer();
+        transformer.atFiles = List.of(atFile);
+        transformer.prepareAsync(Runnable::run).join();
+        transformer.beforeRun(new TransformContext(ijEnv, null, null, new Logger(null, null)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ijEnv.close();
+        Files.deleteIfExists(atFile);
+    }
+
+    @Benchmark
+    public Replacements applyWildcards() {
+        var replacements = new Replacements();
+        transformer.visitFile(psiFile, replacements);
+        return replacements;
+    }
+
+    private static String generateSource(Random random, int memberCount) {
+        var source = new StringBuilder("package pkg;\n\npublic class Wide {\n");
+        for (int i = 0; i < memberCount; i++) {
+            var modifiers = MODIFIERS[random.nextInt(MODIFIERS.length)];
+            if (i % 2 == 0) {
+                source.append("    ").append(modifiers).append("int field").append(i).append(" = ").append(i).append(";\n");
+            } else {
+                source.append("    ").append(modifiers).append("int method").append(i).append("(int value) {\n")
+                        .append("        return value + ").append(i).append(";\n")
+                        .append("    }\n");
+            }
+        }
+        return source.append("}\n").toString();
+    }
+}
@@ -0,0 +1,95 @@
+package net.neoforged.jst.cli.io;
+
+import net.neoforged.jst.cli.OutputCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to write an archive of generated Java sources with each {@link OutputCompression}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArchiveFileSinkBenchmark {
+    private static final FileTime TIME = FileTime.fromMillis(1700000000000L);
+    private static final String[] WORDS = {
+            "public", "private", "static", "final", "void", "int", "String", "return", "this", "new",
+            "List", "Map", "value", "result", "index", "entry", "builder", "context", "if", "else"
+    };
+
+    @Param({"STORED", "FAST", "DEFAULT", "MAX"})
+    public OutputCompression compression;
+
+    @Param({"2000"})
+    public int fileCount;
+
+    private byte[][] contents;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var random = new Random(0);
+        contents = new byte[fileCount][];
+        for (int i = 0; i < fileCount; i++) {
+            contents[i] = generateSource(random, i);
+        }
+        output = Files.createTempFile("jst-benchmark", ".zip");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public long writeArchive() throws IOException {
+        try (var sink = new ArchiveFileSink(output, compression)) {
+            for (int i = 0; i < contents.length; i++) {
+                sink.putFile("pkg/Class" + i + ".java", TIME, contents[i]);
+            }
+        }
+        return Files.size(output);
+    }
+
+    /**
+     * Generates roughly 8 KiB of source that compresses similarly to real Java code.
+     */
+    private static byte[] generateSource(Random random, int index) {
+        var source = new StringBuilder("package pkg;\n\npublic class Class").append(index).append(" {\n");
+        while (source.length() < 8192) {
+            source.append("    ");
+            var wordCount = 3 + random.nextInt(8);
+            for (int i = 0; i < wordCount; i++) {
+                source.append(WORDS[random.nextInt(WORDS.length)]);
+                if (random.nextInt(4) == 0) {
+                    source.append(random.nextInt(100));
+                }
+                source.append(' ');
+            }
+            source.append(";\n");
+        }
+        return source.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package net.neoforged.jst.cli;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import net.neoforged.jst.api.SourceTransformer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which source files need to be parsed, based on the {@link SourceTransformer#getAffectedClasses() classes}
+ * that the transformers may change.
+ * <p>
+ * Files are identified by the top-level class they are named after. Since a file may also declare additional
+ * package-private top-level classes, all files in the package of an affected class that has no file of its own
+ * are considered affected too.
+ */
+final class AffectedFileFilter {
+    private final Set<String> affectedPaths;
+    private final Set<String> affectedPackages;
+
+    private AffectedFileFilter(Set<String> affectedPaths, Set<String> affectedPackages) {
+        this.affectedPaths = affectedPaths;
+        this.affectedPackages = affectedPackages;
+    }
+
+    /**
+     * @return The filter, or null if any of the transformers may affect any file.
+     */
+    @Nullable
+    static AffectedFileFilter create(List<SourceTransformer> transformers, VirtualFile sourceRoot) {
+        var affectedPaths = new HashSet<String>();
+        var affectedPackages = new HashSet<String>();
+        for (var transformer : transformers) {
+            var affectedClasses = transformer.getAffectedClasses();
+            if (affectedClasses == null) {
+                return null;
+            }
+
+            for (var className : affectedClasses) {
+                var innerClassSeparator = className.indexOf('$');
+                var topLevelClass = innerClassSeparator == -1 ? className : className.substring(0, innerClassSeparator);
+                var path = topLevelClass + ".java";
+                if (affectedPaths.add(path) && sourceRoot.findFileByRelativePath(path) == null) {
+                    affectedPackages.add(getPackage(path));
+                }
+            }
+        }
+        return new AffectedFileFilter(affectedPaths, affectedPackages);
+    }
+
+    boolean isAffected(String relativePath) {
+        return affectedPaths.contains(relativePath) || affectedPackages.contains(getPackage(relativePath));
+    }
+
+    int getAffectedClassCount() {
+        return affectedPaths.size();
+    }
+
+    private static String getPackage(String path) {
+        var lastSeparator = path.lastIndexOf('/');
+        return lastSeparator == -1 ? "" : path.substring(0, lastSeparator);
+    }
+}
@@ -0,0 +1,224 @@
+package net.neoforged.jst.cli;
+
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+import net.neoforged.jst.cli.intellij.IntelliJApplicationEnvironment;
+import picocli.CommandLine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived process that runs jobs submitted by {@link Main} via {@code --daemon-socket}.
+ * <p>
+ * Bootstrapping IntelliJ, opening the JDK image and indexing library archives is a large part of the runtime
+ * of a single JST invocation. The daemon keeps the {@link IntelliJApplicationEnvironment application environment}
+ * (and with it the JIT-compiled code and the already opened archives) alive between jobs. Every job still gets its
+ * own project environment, so no state leaks from one job into the next.
+ * <p>
+ * Jobs are run one after another, since IntelliJ only supports a single application per JVM.
+ * <p>
+ * Jobs read and write files as the user running the daemon, so the socket is only accessible to that user and
+ * connections from other users are rejected where the platform reports the user of a peer.
+ */
+@CommandLine.Command(name = "jst-daemon", mixinStandardHelpOptions = true, usageHelpWidth = 100,
+        description = "Runs JST jobs submitted with --daemon-socket in a long-lived process.")
+public class Daemon implements Callable<Integer> {
+    static final int PROTOCOL_VERSION = 2;
+    static final byte REQUEST_JOB = 1;
+    static final byte REQUEST_SHUTDOWN = 2;
+    static final byte FRAME_OUTPUT = 1;
+    static final byte FRAME_EXIT = 2;
+
+    @CommandLine.Option(names = "--socket", required = true, description = "Path of the local socket to listen on.")
+    Path socketPath;
+
+    @CommandLine.Option(names = "--stop", description = "Stop the daemon listening on the socket instead of starting one.")
+    boolean stop;
+
+    private int jobCount;
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new Daemon()).execute(args));
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (stop) {
+            if (!DaemonClient.shutdown(socketPath)) {
+                System.err.println("No JST daemon is listening on " + socketPath);
+                return 1;
+            }
+            return 0;
+        }
+
+        if (DaemonClient.isListening(socketPath)) {
+            System.err.println("A JST daemon is already listening on " + socketPath);
+            return 1;
+        }
+        // Remove the socket file left behind by a daemon that is no longer running
+        Files.deleteIfExists(socketPath);
+
+        var console = System.out;
+        try (var application = new IntelliJApplicationEnvironment();
+             var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            restrictToOwner(socketPath);
+            var owner = Files.getOwner(socketPath);
+            console.println("JST daemon listening on " + socketPath);
+
+            var running = true;
+            while (running) {
+                try (var client = server.accept()) {
+                    if (!isOwner(client, owner)) {
+                        console.println("Rejected connection from a different user");
+                        continue;
+                    }
+                    running = handleRequest(application, client, console);
+                } catch (IOException e) {
+                    console.println("Failed to communicate with JST client: " + e);
+                }
+            }
+            console.println("JST daemon stopped after " + jobCount + " jobs");
+        } finally {
+            Files.deleteIfExists(socketPath);
+        }
+        return 0;
+    }
+
+    private static void restrictToOwner(Path socketPath) throws IOException {
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system, access is controlled by the permissions of the directory
+        }
+    }
+
+    private static boolean isOwner(SocketChannel client, UserPrincipal owner) throws IOException {
+        UnixDomainPrincipal peer;
+        try {
+            peer = client.getOption(ExtendedSocketOptions.SO_PEERCRED);
+        } catch (UnsupportedOperationException e) {
+            // The permissions of the socket are the only restriction on this platform
+            return true;
+        }
+        return peer.user().getName().equals(owner.getName());
+    }
+
+    /**
+     * @return Whether the daemon should keep running.
+     */
+    private boolean handleRequest(IntelliJApplicationEnvironment application, SocketChannel client, PrintStream console) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+        var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+
+        var protocolVersion = in.readInt();
+        if (protocolVersion != PROTOCOL_VERSION) {
+            throw new IOException("Client uses protocol version " + protocolVersion + ", but daemon uses " + PROTOCOL_VERSION);
+        }
+
+        var request = in.readByte();
+        if (request == REQUEST_SHUTDOWN) {
+            console.println("Shutdown requested");
+            out.writeByte(FRAME_EXIT);
+            out.writeInt(0);
+            out.flush();
+            return false;
+        } else if (request != REQUEST_JOB) {
+            throw new IOException("Received unknown request type " + request + " from JST client");
+        }
+
+        handleJob(application, in, out, console);
+        return true;
+    }
+
+    private void handleJob(IntelliJApplicationEnvironment application, DataInputStream in, DataOutputStream out, PrintStream console) throws IOException {
+        var workingDirectory = Paths.get(in.readUTF());
+        var args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+
+        var jobNumber = ++jobCount;
+        var start = System.nanoTime();
+        var reusedArchives = application.invalidateChangedArchives();
+
+        int exitCode;
+        var jobOut = new PrintStream(new FrameOutputStream(out), true, StandardCharsets.UTF_8);
+        var oldOut = System.out;
+        var oldErr = System.err;
+        try {
+            System.setOut(jobOut);
+            System.setErr(jobOut);
+            exitCode = Main.run(application, workingDirectory, args);
+        } catch (Throwable e) {
+            e.printStackTrace(jobOut);
+            exitCode = 1;
+        } finally {
+            System.setOut(oldOut);
+            System.setErr(oldErr);
+            jobOut.flush();
+        }
+
+        var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        var timing = String.format(Locale.ROOT, "Job #%d finished with exit code %d in %d ms (%s)", jobNumber, exitCode, elapsed,
+                reusedArchives ? "reused cached archives" : "archives changed, cache cleared");
+        console.println(timing);
+        // Also report the timing to the client, which otherwise can't tell how long the job took in the daemon
+        jobOut.println("JST daemon: " + timing);
+
+        out.writeByte(FRAME_EXIT);
+        out.writeInt(exitCode);
+        out.flush();
+    }
+
+    /**
+     * Wraps output written by a job into frames, so it can be interleaved with other messages to the client.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+
+        FrameOutputStream(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            out.writeByte(FRAME_OUTPUT);
+            out.writeInt(len);
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.neoforged.jst.cli;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Submits a job to a running {@link Daemon} and relays its output.
+ */
+final class DaemonClient {
+    private DaemonClient() {
+    }
+
+    /**
+     * @return The exit code of the job, or null if no daemon is listening on the given socket.
+     */
+    @Nullable
+    static Integer submit(Path socketPath, List<String> args) throws IOException {
+        var channel = connect(socketPath);
+        if (channel == null) {
+            return null;
+        }
+
+        try (channel;
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+             var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)))) {
+            out.writeInt(Daemon.PROTOCOL_VERSION);
+            out.writeByte(Daemon.REQUEST_JOB);
+            out.writeUTF(Paths.get("").toAbsolutePath().toString());
+            out.writeInt(args.size());
+            for (var arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+            return readFrames(in);
+        }
+    }
+
+    /**
+     * Asks the daemon listening on the given socket to stop once the current job is done.
+     *
+     * @return Whether a daemon was listening.
+     */
+    static boolean shutdown(Path socketPath) throws IOException {
+        var channel = connect(socketPath);
+        if (channel == null) {
+            return false;
+        }
+
+        try (channel;
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+             var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)))) {
+            out.writeInt(Daemon.PROTOCOL_VERSION);
+            out.writeByte(Daemon.REQUEST_SHUTDOWN);
+            out.flush();
+            readFrames(in);
+            return true;
+        }
+    }
+
+    static boolean isListening(Path socketPath) throws IOException {
+        var channel = connect(socketPath);
+        if (channel == null) {
+            return false;
+        }
+        // The daemon only fails to read a request from this connection
+        channel.close();
+        return true;
+    }
+
+    @Nullable
+    private static SocketChannel connect(Path socketPath) throws IOException {
+        var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            return channel;
+        } catch (SocketException e) {
+            // Either there is no socket file, or it was left behind by a daemon that is no longer running
+            channel.close();
+            return null;
+        }
+    }
+
+    /**
+     * Relays the output of the daemon until it reports an exit code.
+     */
+    private static int readFrames(DataInputStream in) throws IOException {
+        while (true) {
+            var frameType = in.readByte();
+            if (frameType == Daemon.FRAME_OUTPUT) {
+                var output = new byte[in.readInt()];
+                in.readFully(output);
+                System.out.write(output);
+            } else if (frameType == Daemon.FRAME_EXIT) {
+                System.out.flush();
+                return in.readInt();
+            } else {
+                throw new IOException("Received unknown frame type " + frameType + " from JST daemon");
+            }
+        }
+    }
+}
@@ -3,8 +3,10 @@ package net.neoforged.jst.cli;
 import net.neoforged.jst.api.Logger;
 import net.neoforged.jst.api.SourceTransformer;
 import net.neoforged.jst.api.SourceTransformerPlugin;
+import net.neoforged.jst.api.VerificationLevel;
 import net.neoforged.jst.cli.io.FileSinks;
 import net.neoforged.jst.cli.io.FileSources;
+import net.neoforged.jst.cli.intellij.IntelliJApplicationEnvironment;
 import net.neoforged.problems.FileProblemReporter;
 import net.neoforged.problems.ProblemReporter;
 import org.jetbrains.annotations.Nullable;
@@ -13,6 +15,7 @@ import picocli.CommandLine;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -33,6 +36,9 @@ public class Main implements Callable<Integer> {
     @CommandLine.Option(names = "--out-format", description = "Specify the format of OUTPUT explicitly. Allows the same options as --in-format.")
     PathType outputFormat = PathType.AUTO;
 
+    @CommandLine.Option(names = "--out-compression", description = "How to compress entries when OUTPUT is an archive. STORED writes them uncompressed, which is fastest if the archive is only read by another tool afterwards. Other options are FAST, DEFAULT (the default) and MAX. Entries copied unchanged from an input archive keep their compression.")
+    OutputCompression outputCompression = OutputCompression.DEFAULT;
+
     @CommandLine.Option(names = "--libraries-list", description = "Specifies a file that contains a path to an archive or directory to add to the classpath on each line.")
     Path librariesList;
 
@@ -45,26 +51,74 @@ public class Main implements Callable<Integer> {
     @CommandLine.Option(names = "--max-queue-depth", description = "When both input and output support ordering (archives), the transformer will try to maintain that order. To still process items in parallel, a queue is used. Larger queue depths lead to higher memory usage.")
     int maxQueueDepth = 100;
 
+    @CommandLine.Option(names = "--max-queue-bytes", description = "Limits the size of transformed content that is held in memory while waiting to be written to the output, in bytes. Only results that were already produced count towards the limit, not the sources that are still being transformed. Applies in addition to --max-queue-depth. Defaults to no limit.")
+    long maxQueueBytes = Long.MAX_VALUE;
+
+    @CommandLine.Option(names = "--threads", description = "The number of threads used to transform source files in parallel. Defaults to the number of available processors.")
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(names = "--verify", description = "How thoroughly transformers check the consistency of the parsed sources. NONE skips the checks, SAMPLE checks the same subset of classes, chosen by their name, in every run and FULL (the default) checks all classes.")
+    VerificationLevel verificationLevel = VerificationLevel.FULL;
+
     @CommandLine.Option(names = "--debug", description = "Print additional debugging information")
     boolean debug = false;
 
     @CommandLine.Option(names = "--problems-report", description = "Write problems to this report file.")
     Path problemsReport;
 
+    @CommandLine.Option(names = "--cache-dir", description = "Store transformation results in this directory and reuse them for source files that are unchanged since a previous run with the same transformer inputs and classpath.")
+    Path cacheDir;
+
+    @CommandLine.Option(names = "--daemon-socket", description = "Submit this job to a JST daemon listening on the given local socket instead of running it in this process. If no daemon is listening, the job runs in this process.")
+    Path daemonSocket;
+
     private final HashSet<SourceTransformer> enabledTransformers = new HashSet<>();
 
+    /**
+     * The arguments as given on the command line, used to forward the job to a daemon.
+     */
+    private String[] rawArgs = new String[0];
+
+    /**
+     * When running as a daemon job, the application environment shared between jobs.
+     */
+    @Nullable
+    private IntelliJApplicationEnvironment application;
+
+    /**
+     * When running as a daemon job, the working directory of the client that submitted it.
+     */
+    @Nullable
+    private Path workingDirectory;
+
     public static void main(String[] args) {
         System.exit(innerMain(args));
     }
 
     @VisibleForTesting
     public static int innerMain(String... args) {
+        return run(null, null, args);
+    }
+
+    /**
+     * Runs a single job.
+     *
+     * @param application      The application environment to reuse, or null to bootstrap a new one for this job.
+     * @param workingDirectory The directory that relative paths are resolved against, or null for the current directory.
+     */
+    static int run(@Nullable IntelliJApplicationEnvironment application, @Nullable Path workingDirectory, String... args) {
         // Load these up front so that they can add CommandLine Options
         var plugins = ServiceLoader.load(SourceTransformerPlugin.class).stream().map(ServiceLoader.Provider::get).toList();
 
         var main = new Main();
+        main.rawArgs = args;
+        main.application = application;
+        main.workingDirectory = workingDirectory;
         var commandLine = new CommandLine(main);
         commandLine.setCaseInsensitiveEnumValuesAllowed(true);
+        if (workingDirectory != null) {
+            commandLine.registerConverter(Path.class, workingDirectory::resolve);
+        }
         var spec = commandLine.getCommandSpec();
 
         main.setupPluginCliOptions(plugins, spec);
@@ -73,27 +127,42 @@ public class Main implements Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
+        if (daemonSocket != null && application == null) {
+            var exitCode = DaemonClient.submit(daemonSocket, getArgsForDaemon());
+            if (exitCode != null) {
+                return exitCode;
+            }
+            System.err.println("No JST daemon is listening on " + daemonSocket + ", running in-process.");
+        }
+
         var logger = debug ? new Logger(System.out, System.err) : new Logger(null, System.err);
+        var orderedTransformers = new ArrayList<>(enabledTransformers);
+        // Transformers load their data while the IntelliJ environment is set up
+        var preparation = SourceFileProcessor.prepareTransformers(orderedTransformers);
         try (var source = FileSources.create(inputPath, inputFormat);
              var problemReporter = createProblemReporter(problemsReport);
-             var processor = new SourceFileProcessor(logger, Objects.requireNonNullElse(problemReporter, ProblemReporter.NOOP))) {
+             var processor = new SourceFileProcessor(logger, Objects.requireNonNullElse(problemReporter, ProblemReporter.NOOP), application)) {
 
             if (librariesList != null) {
                 processor.addLibrariesList(librariesList);
             }
             for (Path path : addToClasspath) {
-                processor.addLibrary(path);
+                processor.addLibrary(workingDirectory != null ? workingDirectory.resolve(path) : path);
             }
             for (String ignoredPrefix : ignoredPrefixes) {
                 processor.addIgnoredPrefix(ignoredPrefix);
             }
 
             processor.setMaxQueueDepth(maxQueueDepth);
+            processor.setMaxQueueBytes(maxQueueBytes);
+            processor.setThreads(threads);
+            processor.setVerificationLevel(verificationLevel);
+            if (cacheDir != null) {
+                processor.setCache(new TransformCache(cacheDir));
+            }
 
-            var orderedTransformers = new ArrayList<>(enabledTransformers);
-
-            try (var sink = FileSinks.create(outputPath, outputFormat, source)) {
-                if (!processor.process(source, sink, orderedTransformers)) {
+            try (var sink = FileSinks.create(outputPath, outputFormat, source, outputCompression)) {
+                if (!processor.process(source, sink, orderedTransformers, preparation)) {
                     logger.error("Transformation failed");
                     return 1;
                 }
@@ -104,6 +173,25 @@ public class Main implements Callable<Integer> {
         return 0;
     }
 
+    /**
+     * The original arguments without the daemon socket option, to avoid the daemon trying to forward the job again.
+     */
+    private List<String> getArgsForDaemon() {
+        var args = new ArrayList<>(Arrays.asList(rawArgs));
+        for (int i = 0; i < args.size(); i++) {
+            if (args.get(i).startsWith("--daemon-socket=")) {
+                args.remove(i--);
+            } else if (args.get(i).equals("--daemon-socket")) {
+                args.remove(i);
+                if (i < args.size()) {
+                    args.remove(i);
+                }
+                i--;
+            }
+        }
+        return args;
+    }
+
     @Nullable
     private FileProblemReporter createProblemReporter(Path problemsReport) {
         if (problemsReport == null) {
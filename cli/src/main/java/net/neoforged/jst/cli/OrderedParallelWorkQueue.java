@@ -1,6 +1,8 @@
 package net.neoforged.jst.cli;
 
+import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.FileSink;
+import net.neoforged.jst.cli.io.PreparingFileSink;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -9,27 +11,62 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+/**
+ * Processes work in parallel and writes the results to a sink from the submitting thread.
+ * <p>
+ * If the sink is {@linkplain FileSink#isOrderSensitive() order-sensitive}, results are written in the order
+ * the work was submitted in. Otherwise, they are written in the order the work completes in, so that a single
+ * slow entry does not hold back the results of the entries submitted after it.
+ * <p>
+ * The amount of pending work is bounded by the number of entries and by the size of the results held in memory.
+ * The size of work that is still running is not known up front, so it is only bounded by the number of entries.
+ */
 class OrderedParallelWorkQueue implements AutoCloseable {
+    /**
+     * Work in the order it was submitted in. Only used when writing results in order.
+     */
     private final Deque<Future<List<WorkResult>>> pending;
+    /**
+     * Work in the order it completed in. Only used when writing results in completion order.
+     */
+    private final BlockingQueue<Future<List<WorkResult>>> completed = new LinkedBlockingQueue<>();
+    private int inFlight;
+    /**
+     * The size of the file content that was produced, but not written to the sink yet.
+     */
+    private final AtomicLong bytesInFlight = new AtomicLong();
     private final FileSink sink;
     private final int maxQueueDepth;
+    private final long maxQueueBytes;
+    private final Executor executor;
+    private final boolean ordered;
 
-    public OrderedParallelWorkQueue(FileSink sink, int maxQueueDepth) {
+    public OrderedParallelWorkQueue(FileSink sink, int maxQueueDepth, long maxQueueBytes, Executor executor) {
         this.sink = sink;
         this.maxQueueDepth = maxQueueDepth;
+        this.maxQueueBytes = maxQueueBytes;
+        this.executor = executor;
+        this.ordered = sink.isOrderSensitive();
         if (maxQueueDepth < 0) {
             throw new IllegalArgumentException("Max queue depth must not be negative");
         }
+        if (maxQueueBytes < 0) {
+            throw new IllegalArgumentException("Max queue bytes must not be negative");
+        }
         this.pending = new ArrayDeque<>(maxQueueDepth);
     }
 
     public void submit(Consumer<FileSink> producer) throws IOException {
-        if (pending.isEmpty()) {
+        if (inFlight == 0) {
             // Can write directly if nothing else is pending
             producer.accept(sink);
         } else {
@@ -38,6 +75,26 @@ class OrderedParallelWorkQueue implements AutoCloseable {
         }
     }
 
+    /**
+     * Copies an entry to the sink without changing it, which does not require a worker thread.
+     * If the entry has to be queued behind pending work to preserve the order, it is only read when it is written.
+     */
+    public void submitCopy(FileEntry entry) {
+        try {
+            if (inFlight == 0 || !ordered) {
+                sink.copyFile(entry);
+                return;
+            }
+            drainTo(maxQueueDepth - 1);
+            inFlight++;
+            pending.add(CompletableFuture.completedFuture(List.of(new WorkResult.Copy(entry))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public void submitAsync(Consumer<FileSink> producer) {
         try {
             if (maxQueueDepth <= 0) {
@@ -46,14 +103,20 @@ class OrderedParallelWorkQueue implements AutoCloseable {
                 return;
             }
             drainTo(maxQueueDepth - 1);
-            pending.add(CompletableFuture.supplyAsync(() -> {
+            var future = CompletableFuture.supplyAsync(() -> {
                 try (var parallelSink = new ParallelSink()) {
                     producer.accept(parallelSink);
                     return parallelSink.workResults;
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
-            }));
+            }, executor);
+            inFlight++;
+            if (ordered) {
+                pending.add(future);
+            } else {
+                future.whenComplete((workResults, throwable) -> completed.add(future));
+            }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } catch (InterruptedException e) {
@@ -76,20 +139,38 @@ class OrderedParallelWorkQueue implements AutoCloseable {
 
         @Override
         public void putDirectory(String relativePath) {
-            workResults.add(new WorkResult(true, relativePath, null, null));
+            workResults.add(new WorkResult.Directory(relativePath));
         }
 
         @Override
-        public void putFile(String relativePath, FileTime lastModified, byte[] content) {
-            workResults.add(new WorkResult(false, relativePath, lastModified, content));
+        public void putFile(String relativePath, FileTime lastModified, byte[] content) throws IOException {
+            if (sink instanceof PreparingFileSink preparingSink) {
+                // Let the worker do the expensive part of writing the file, i.e. compressing it
+                var preparedFile = preparingSink.prepareFile(relativePath, lastModified, content);
+                bytesInFlight.addAndGet(preparedFile.memorySize());
+                workResults.add(new WorkResult.Prepared(preparedFile));
+            } else {
+                bytesInFlight.addAndGet(content.length);
+                workResults.add(new WorkResult.File(relativePath, lastModified, content));
+            }
+        }
+
+        @Override
+        public void copyFile(FileEntry entry) {
+            workResults.add(new WorkResult.Copy(entry));
         }
     }
 
     private void drainTo(int drainTo) throws InterruptedException, IOException {
-        while (pending.size() > drainTo) {
+        // Also drain while over the byte budget, since only writing results to the sink frees up their memory
+        while (inFlight > drainTo || (inFlight > 0 && bytesInFlight.get() > maxQueueBytes)) {
+            // Wait for the oldest work when writing in order, otherwise for whichever work completes first
+            var future = ordered ? pending.removeFirst() : completed.take();
+            inFlight--;
+
             List<WorkResult> workResults;
             try {
-                workResults = pending.removeFirst().get();
+                workResults = future.get();
             } catch (ExecutionException e) {
                 if (e.getCause() instanceof IOException ioe) {
                     throw ioe;
@@ -97,10 +178,16 @@ class OrderedParallelWorkQueue implements AutoCloseable {
                 throw new RuntimeException(e.getCause());
             }
             for (var workResult : workResults) {
-                if (workResult.directory) {
-                    sink.putDirectory(workResult.relativePath);
-                } else {
-                    sink.putFile(workResult.relativePath, workResult.lastModified, workResult.content);
+                if (workResult instanceof WorkResult.Directory directory) {
+                    sink.putDirectory(directory.relativePath());
+                } else if (workResult instanceof WorkResult.File file) {
+                    sink.putFile(file.relativePath(), file.lastModified(), file.content());
+                    bytesInFlight.addAndGet(-file.content().length);
+                } else if (workResult instanceof WorkResult.Prepared prepared) {
+                    ((PreparingFileSink) sink).putPreparedFile(prepared.file());
+                    bytesInFlight.addAndGet(-prepared.file().memorySize());
+                } else if (workResult instanceof WorkResult.Copy copy) {
+                    sink.copyFile(copy.entry());
                 }
             }
         }
@@ -117,6 +204,20 @@ class OrderedParallelWorkQueue implements AutoCloseable {
         }
     }
 
-    private record WorkResult(boolean directory, String relativePath, FileTime lastModified, byte[] content) {
+    private sealed interface WorkResult {
+        record Directory(String relativePath) implements WorkResult {
+        }
+
+        record File(String relativePath, FileTime lastModified, byte[] content) implements WorkResult {
+        }
+
+        record Prepared(PreparingFileSink.PreparedFile file) implements WorkResult {
+        }
+
+        /**
+         * An unchanged entry, which is only read from the source when it is written to the sink.
+         */
+        record Copy(FileEntry entry) implements WorkResult {
+        }
     }
 }
@@ -0,0 +1,29 @@
+package net.neoforged.jst.cli;
+
+import java.util.zip.Deflater;
+
+/**
+ * How entries of archive outputs are compressed.
+ */
+public enum OutputCompression {
+    /**
+     * Entries are stored without compression.
+     */
+    STORED(Deflater.NO_COMPRESSION),
+    FAST(Deflater.BEST_SPEED),
+    DEFAULT(Deflater.DEFAULT_COMPRESSION),
+    MAX(Deflater.BEST_COMPRESSION);
+
+    private final int level;
+
+    OutputCompression(int level) {
+        this.level = level;
+    }
+
+    /**
+     * @return The {@link Deflater} level to use. Irrelevant for {@link #STORED}.
+     */
+    public int level() {
+        return level;
+    }
+}
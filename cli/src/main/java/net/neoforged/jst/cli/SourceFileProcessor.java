@@ -2,6 +2,8 @@ package net.neoforged.jst.cli;
 
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
 import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.FileSink;
 import net.neoforged.jst.api.FileSource;
@@ -11,9 +13,12 @@ import net.neoforged.jst.api.Replacement;
 import net.neoforged.jst.api.Replacements;
 import net.neoforged.jst.api.SourceTransformer;
 import net.neoforged.jst.api.TransformContext;
+import net.neoforged.jst.api.VerificationLevel;
 import net.neoforged.jst.cli.intellij.ClasspathSetup;
+import net.neoforged.jst.cli.intellij.IntelliJApplicationEnvironment;
 import net.neoforged.jst.cli.intellij.IntelliJEnvironmentImpl;
 import net.neoforged.problems.ProblemReporter;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -24,7 +29,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Reference for out-of-IDE usage of the IntelliJ Java parser is from the Kotlin compiler
@@ -33,32 +44,100 @@ import java.util.concurrent.atomic.AtomicBoolean;
 class SourceFileProcessor implements AutoCloseable {
     private final IntelliJEnvironmentImpl ijEnv;
     private int maxQueueDepth = 50;
+    private long maxQueueBytes = Long.MAX_VALUE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private VerificationLevel verificationLevel = VerificationLevel.FULL;
+    @Nullable
+    private ExecutorService executor;
     private final Logger logger;
     private final ProblemReporter problemReporter;
+    @Nullable
+    private TransformCache cache;
+    /**
+     * Limits parsing to the files that transformers may change, or null if all files have to be parsed.
+     */
+    @Nullable
+    private AffectedFileFilter affectedFiles;
 
     private final List<String> ignoredPrefixes = new ArrayList<>();
 
     public SourceFileProcessor(Logger logger, ProblemReporter problemReporter) throws IOException {
+        this(logger, problemReporter, null);
+    }
+
+    /**
+     * @param application If not null, the project environment is created on top of this existing application
+     *                    environment instead of bootstrapping a new one.
+     */
+    public SourceFileProcessor(Logger logger, ProblemReporter problemReporter, @Nullable IntelliJApplicationEnvironment application) throws IOException {
         this.logger = logger;
         this.problemReporter = problemReporter;
-        ijEnv = new IntelliJEnvironmentImpl(logger);
+        ijEnv = application != null ? new IntelliJEnvironmentImpl(logger, application) : new IntelliJEnvironmentImpl(logger);
         ijEnv.addCurrentJdkToClassPath();
     }
 
+    /**
+     * Starts loading the data of the given transformers in the background, so that it overlaps with setting up
+     * the IntelliJ environment. Pass the result to {@link #process(FileSource, FileSink, List, CompletableFuture)}.
+     */
+    public static CompletableFuture<Void> prepareTransformers(List<SourceTransformer> transformers) {
+        if (transformers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "jst-prepare-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        var futures = new CompletableFuture<?>[transformers.size()];
+        for (int i = 0; i < futures.length; i++) {
+            try {
+                futures[i] = transformers.get(i).prepareAsync(executor);
+            } catch (RuntimeException e) {
+                futures[i] = CompletableFuture.failedFuture(e);
+            }
+        }
+        var preparation = CompletableFuture.allOf(futures);
+        preparation.whenComplete((result, error) -> executor.shutdown());
+        return preparation;
+    }
+
     public boolean process(FileSource source, FileSink sink, List<SourceTransformer> transformers) throws IOException {
+        return process(source, sink, transformers, prepareTransformers(transformers));
+    }
+
+    /**
+     * @param preparation The result of {@link #prepareTransformers} for the given transformers.
+     */
+    public boolean process(FileSource source, FileSink sink, List<SourceTransformer> transformers, CompletableFuture<Void> preparation) throws IOException {
         if (source.canHaveMultipleEntries() && !sink.canHaveMultipleEntries()) {
             throw new IllegalStateException("Cannot have an input with possibly more than one file when the output is a single file.");
         }
 
-        var context = new TransformContext(ijEnv, source, sink, logger, problemReporter);
+        var context = new TransformContext(ijEnv, source, sink, logger, problemReporter, verificationLevel);
 
         var sourceRoot = source.createSourceRoot(VirtualFileManager.getInstance());
         ijEnv.addSourceRoot(sourceRoot);
 
+        awaitPreparation(preparation);
         for (var transformer : transformers) {
             transformer.beforeRun(context);
         }
 
+        if (cache != null) {
+            cache.setClasspath(ijEnv.getClasspath());
+        }
+
+        // Single files are not necessarily named after the package of their classes, so they are always parsed
+        if (source.canHaveMultipleEntries()) {
+            affectedFiles = AffectedFileFilter.create(transformers, sourceRoot);
+            if (affectedFiles != null) {
+                logger.debug("Only parsing files declaring one of %d top-level classes affected by transformers", affectedFiles.getAffectedClassCount());
+            }
+        }
+
         if (source.isOrdered() && sink.isOrdered()) {
             try (var stream = source.streamEntries()) {
                 stream.forEach(entry -> {
@@ -71,23 +150,34 @@ class SourceFileProcessor implements AutoCloseable {
             }
         } else {
             var success = new AtomicBoolean(true);
-            try (var asyncOut = new OrderedParallelWorkQueue(sink, maxQueueDepth);
+            try (var asyncOut = new OrderedParallelWorkQueue(sink, maxQueueDepth, maxQueueBytes, getExecutor());
                  var stream = source.streamEntries()) {
-                stream.forEach(entry -> asyncOut.submitAsync(parallelSink -> {
-                    try {
-                        if (!processEntry(entry, sourceRoot, transformers, parallelSink)) {
-                            success.set(false);
-                        }
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
+                stream.forEach(entry -> {
+                    if (!entry.directory() && !isTransformed(entry, transformers)) {
+                        // Unchanged files are written directly, without being read into memory by a worker
+                        asyncOut.submitCopy(entry);
+                        return;
                     }
-                }));
+                    asyncOut.submitAsync(parallelSink -> {
+                        try {
+                            if (!processEntry(entry, sourceRoot, transformers, parallelSink)) {
+                                success.set(false);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                });
             }
             if (!success.get()) {
                 return false;
             }
         }
 
+        if (cache != null) {
+            logger.debug("Incremental cache: %d hits, %d misses", cache.getHits(), cache.getMisses());
+        }
+
         boolean isOk = true;
         for (var transformer : transformers) {
             isOk = isOk && transformer.afterRun(context);
@@ -96,33 +186,77 @@ class SourceFileProcessor implements AutoCloseable {
         return isOk;
     }
 
+    private static void awaitPreparation(CompletableFuture<Void> preparation) {
+        try {
+            preparation.join();
+        } catch (CompletionException e) {
+            // Rethrow what the transformer threw, as if it had loaded its data on this thread
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            logger.debug("Transforming with %d threads", threads);
+            var threadCounter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                var thread = new Thread(runnable, "jst-worker-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
     private boolean processEntry(FileEntry entry, VirtualFile sourceRoot, List<SourceTransformer> transformers, FileSink sink) throws IOException {
         if (entry.directory()) {
             sink.putDirectory(entry.relativePath());
             return true;
         }
         
+        if (!isTransformed(entry, transformers)) {
+            sink.copyFile(entry);
+            return true;
+        }
+
         boolean[] success = {true};
 
         try (var in = entry.openInputStream()) {
             byte[] content = in.readAllBytes();
             var lastModified = entry.lastModified();
 
-            if (!isIgnored(entry.relativePath()) && !transformers.isEmpty() && entry.hasExtension("java")) {
-                var orgContent = content;
-                content = transformSource(sourceRoot, entry, transformers, content, success);
-                if (!success[0]) {
-                    return false;
-                }
-                if (orgContent != content) {
-                    lastModified = FileTime.from(Instant.now());
+            var orgContent = content;
+            var cacheKey = cache != null ? cache.computeKey(entry, content, transformers) : null;
+            var cachedContent = cacheKey != null ? cache.get(cacheKey, content) : null;
+            if (cachedContent != null) {
+                for (var transformer : transformers) {
+                    transformer.visitCachedFile(entry);
                 }
+                content = cachedContent;
+            } else {
+                content = transformSource(sourceRoot, entry, transformers, content, cacheKey, success);
+            }
+            if (!success[0]) {
+                return false;
+            }
+            if (orgContent != content) {
+                lastModified = FileTime.from(Instant.now());
             }
             sink.putFile(entry.relativePath(), lastModified, content);
         }
         return true;
     }
 
+    private boolean isTransformed(FileEntry entry, List<SourceTransformer> transformers) {
+        return !isIgnored(entry.relativePath()) && !transformers.isEmpty() && entry.hasExtension("java")
+                && (affectedFiles == null || affectedFiles.isAffected(entry.relativePath()));
+    }
+
     private boolean isIgnored(String relativePath) {
         for (String ignoredPrefix : ignoredPrefixes) {
             if (relativePath.startsWith(ignoredPrefix)) {
@@ -132,7 +266,7 @@ class SourceFileProcessor implements AutoCloseable {
         return false;
     }
 
-    private byte[] transformSource(VirtualFile contentRoot, FileEntry entry, List<SourceTransformer> transformers, byte[] originalContentBytes, boolean[] successOut) {
+    private byte[] transformSource(VirtualFile contentRoot, FileEntry entry, List<SourceTransformer> transformers, byte[] originalContentBytes, @Nullable String cacheKey, boolean[] successOut) throws IOException {
         // Instead of parsing the content we actually read from the file, we read the virtual file that is
         // visible to IntelliJ from adding the source jar. The reasoning is that IntelliJ will cache this internally
         // and reuse it when cross-referencing type-references. If we parsed from a String instead, it would parse
@@ -169,19 +303,72 @@ class SourceFileProcessor implements AutoCloseable {
         
         successOut[0] = success;
 
-        // If no replacements were made, just stream the original content into the destination file
-        if (!success || replacements.isEmpty()) {
+        if (!success) {
             return originalContentBytes;
         }
 
-        var originalContent = psiFile.getViewProvider().getContents();
-        return replacements.apply(originalContent).getBytes(StandardCharsets.UTF_8);
+        byte[] result;
+        if (replacements.isEmpty()) {
+            // If no replacements were made, just stream the original content into the destination file
+            result = originalContentBytes;
+        } else {
+            var originalContent = psiFile.getViewProvider().getContents();
+            result = replacements.apply(originalContent).getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (cacheKey != null && isCacheable(entry, psiFile, transformers)) {
+            cache.put(cacheKey, originalContentBytes, result);
+        }
+        return result;
+    }
+
+    private static boolean isCacheable(FileEntry entry, PsiFile psiFile, List<SourceTransformer> transformers) {
+        // Transformers identify the classes in a file by its path, which only works if the classes are named after it
+        if (!(psiFile instanceof PsiJavaFile javaFile)) {
+            return false;
+        }
+        var path = entry.relativePath();
+        var expectedClassName = path.substring(0, path.length() - ".java".length()).replace('/', '.');
+        for (var psiClass : javaFile.getClasses()) {
+            if (!expectedClassName.equals(psiClass.getQualifiedName())) {
+                return false;
+            }
+        }
+
+        for (var transformer : transformers) {
+            if (!transformer.isCacheable(entry, psiFile)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void setMaxQueueDepth(int maxQueueDepth) {
         this.maxQueueDepth = maxQueueDepth;
     }
 
+    public void setMaxQueueBytes(long maxQueueBytes) {
+        this.maxQueueBytes = maxQueueBytes;
+    }
+
+    public void setVerificationLevel(VerificationLevel verificationLevel) {
+        this.verificationLevel = verificationLevel;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Enables reusing transformation results from previous runs that were stored in the given cache.
+     */
+    public void setCache(@Nullable TransformCache cache) {
+        this.cache = cache;
+    }
+
     public void addLibrariesList(Path librariesList) throws IOException {
         ClasspathSetup.addLibraries(logger, librariesList, ijEnv);
     }
@@ -197,6 +384,16 @@ class SourceFileProcessor implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.error("Worker threads did not finish within a minute");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         ijEnv.close();
     }
 }
@@ -0,0 +1,176 @@
+package net.neoforged.jst.cli;
+
+import net.neoforged.jst.api.FileEntry;
+import net.neoforged.jst.api.SourceTransformer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An on-disk cache of transformation results, keyed by a hash of the source file content, the
+ * {@linkplain SourceTransformer#getCacheFingerprint fingerprints} of the enabled transformers and the classpath.
+ * <p>
+ * Each entry is stored in its own file, so the cache can be shared between runs and processes without locking.
+ * Changes in other source files (i.e. a super-class declaring new fields) are not tracked.
+ */
+final class TransformCache {
+    /**
+     * Increase this when the key computation or the format of the cache entries changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte UNCHANGED = 0;
+    private static final byte REPLACED = 1;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directory;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private byte[] environmentFingerprint = new byte[0];
+
+    TransformCache(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Sets the classpath that transformations are resolved against, which is part of every key.
+     * Archives are identified by their path, size and modification time.
+     */
+    void setClasspath(List<Path> classpath) {
+        var digest = createDigest();
+        update(digest, String.valueOf(FORMAT_VERSION));
+        update(digest, System.getProperty("java.version"));
+        for (var path : classpath) {
+            update(digest, path.toAbsolutePath().toString());
+            try {
+                update(digest, Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        environmentFingerprint = digest.digest();
+    }
+
+    /**
+     * @return The key for the given entry, or null if any of the transformers does not support caching it.
+     */
+    @Nullable
+    String computeKey(FileEntry entry, byte[] content, List<SourceTransformer> transformers) {
+        // The order of enabled transformers is not stable across runs, so sort their fingerprints
+        var fingerprints = new ArrayList<String[]>(transformers.size());
+        for (var transformer : transformers) {
+            var fingerprint = transformer.getCacheFingerprint(entry);
+            if (fingerprint == null) {
+                return null;
+            }
+            fingerprints.add(new String[]{transformer.getClass().getName(), fingerprint});
+        }
+        fingerprints.sort(Comparator.comparing(f -> f[0]));
+
+        var digest = createDigest();
+        digest.update(environmentFingerprint);
+        update(digest, entry.relativePath());
+        for (var fingerprint : fingerprints) {
+            update(digest, fingerprint[0]);
+            update(digest, fingerprint[1]);
+        }
+        digest.update(content);
+        return HEX.formatHex(digest.digest());
+    }
+
+    /**
+     * @return The cached result for the given key, which is the original content if the transformers didn't
+     * change the file, or null if nothing is cached for the key.
+     */
+    byte @Nullable [] get(String key, byte[] originalContent) throws IOException {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(getPath(key));
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (data.length == 0 || (data[0] != UNCHANGED && data[0] != REPLACED)) {
+            // A corrupt entry is treated the same as a missing one and will be overwritten
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return data[0] == UNCHANGED ? originalContent : Arrays.copyOfRange(data, 1, data.length);
+    }
+
+    void put(String key, byte[] originalContent, byte[] transformedContent) throws IOException {
+        byte[] data;
+        if (transformedContent == originalContent) {
+            data = new byte[]{UNCHANGED};
+        } else {
+            data = new byte[1 + transformedContent.length];
+            data[0] = REPLACED;
+            System.arraycopy(transformedContent, 0, data, 1, transformedContent.length);
+        }
+
+        var path = getPath(key);
+        Files.createDirectories(path.getParent());
+        // Write to a temporary file first so that concurrent readers never see a partially written entry
+        var tempFile = Files.createTempFile(path.getParent(), key, ".tmp");
+        try {
+            Files.write(tempFile, data);
+            try {
+                Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    private Path getPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key.substring(2));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Prefix the length to avoid ambiguity between adjacent values
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package net.neoforged.jst.cli.intellij;
+
+import com.intellij.core.CoreApplicationEnvironment;
+import com.intellij.core.JavaCoreApplicationEnvironment;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.TransactionGuard;
+import com.intellij.openapi.application.TransactionGuardImpl;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.vfs.VirtualFileSystem;
+import com.intellij.openapi.vfs.impl.ZipHandler;
+import com.intellij.openapi.vfs.impl.jar.CoreJarFileSystem;
+import com.intellij.pom.java.InternalPersistentJavaLanguageLevelReaderService;
+import com.intellij.psi.JavaModuleSystem;
+import com.intellij.psi.augment.PsiAugmentProvider;
+import com.intellij.psi.impl.JavaClassSupersImpl;
+import com.intellij.psi.impl.source.tree.JavaTreeGenerator;
+import com.intellij.psi.impl.source.tree.TreeGenerator;
+import com.intellij.psi.util.JavaClassSupers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application-level part of the IntelliJ environment (application services, VFS, JRT and JAR file systems).
+ * <p>
+ * A single application environment can outlive several {@link IntelliJEnvironmentImpl project environments}.
+ * This is used by the {@linkplain net.neoforged.jst.cli.Daemon daemon} to keep IntelliJ and the already opened
+ * JDK images and library archives warm between jobs.
+ */
+public class IntelliJApplicationEnvironment implements AutoCloseable {
+    private final Disposable rootDisposable;
+    private final Path tempDir;
+    private final JavaCoreApplicationEnvironment appEnv;
+    /**
+     * Archives that IntelliJ has opened through its JAR file system, with the state they had at that time.
+     * IntelliJ caches the entries of these archives, so a changed archive requires dropping the cache.
+     */
+    private final Map<Path, ArchiveStamp> openedArchives = new HashMap<>();
+
+    public IntelliJApplicationEnvironment() throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        tempDir = Files.createTempDirectory("jst");
+        this.rootDisposable = Disposer.newDisposable();
+        System.setProperty("idea.home.path", tempDir.toAbsolutePath().toString());
+
+        // IDEA requires a config directory, even if it's empty
+        PathManager.setExplicitConfigPath(tempDir.toAbsolutePath().toString());
+        Registry.markAsLoaded(); // Avoids warnings about config not being loaded
+
+        appEnv = new JavaCoreApplicationEnvironment(rootDisposable) {
+            @Override
+            protected VirtualFileSystem createJrtFileSystem() {
+                return new CoreJrtFileSystem();
+            }
+        };
+        initAppExtensionsAndServices(appEnv);
+    }
+
+    public JavaCoreApplicationEnvironment getAppEnv() {
+        return appEnv;
+    }
+
+    Disposable getRootDisposable() {
+        return rootDisposable;
+    }
+
+    /**
+     * Remember an archive that was opened through IntelliJs JAR file system, so that
+     * {@link #invalidateChangedArchives()} can detect when it changes on disk.
+     */
+    synchronized void registerArchive(Path archive) {
+        archive = archive.toAbsolutePath().normalize();
+        if (!openedArchives.containsKey(archive)) {
+            openedArchives.put(archive, ArchiveStamp.of(archive));
+        }
+    }
+
+    /**
+     * Drops IntelliJs cached archive contents if any archive opened by a previous job has since changed on disk.
+     *
+     * @return {@code true} if the cached archives could be kept
+     */
+    public synchronized boolean invalidateChangedArchives() {
+        boolean unchanged = true;
+        for (var entry : openedArchives.entrySet()) {
+            if (!entry.getValue().equals(ArchiveStamp.of(entry.getKey()))) {
+                unchanged = false;
+                break;
+            }
+        }
+
+        if (!unchanged) {
+            ZipHandler.clearFileAccessorCache();
+            if (appEnv.getJarFileSystem() instanceof CoreJarFileSystem jarFileSystem) {
+                jarFileSystem.clearHandlersCache();
+            }
+            openedArchives.clear();
+        }
+        return unchanged;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Releases cached ZipFiles within IntelliJ, allowing the tempdir to be deleted
+        ZipHandler.clearFileAccessorCache();
+        Disposer.dispose(rootDisposable);
+        Files.deleteIfExists(tempDir);
+    }
+
+    /*
+     * When IntelliJ crashes after an update complaining about an extension point or extension not being available,
+     * check JavaPsiPlugin.xml for the name of that extension point. Then register it as it's defined in the XML
+     * by hand here.
+     *
+     * This method is responsible for anything in the XML that is:
+     * - An applicationService
+     * - Extension points not marked as area="IDEA_PROJECT"
+     * - Any extensions registered for extension points that are not marked area="IDEA_PROJECT"
+     */
+    private void initAppExtensionsAndServices(JavaCoreApplicationEnvironment appEnv) {
+        // When any service or extension point is missing, check JavaPsiPlugin.xml in classpath and grab the definition
+        appEnv.registerApplicationService(JavaClassSupers.class, new JavaClassSupersImpl());
+        appEnv.registerApplicationService(InternalPersistentJavaLanguageLevelReaderService.class, new InternalPersistentJavaLanguageLevelReaderService.DefaultImpl());
+        appEnv.registerApplicationService(TransactionGuard.class, new TransactionGuardImpl());
+
+        var appExtensions = appEnv.getApplication().getExtensionArea();
+        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, PsiAugmentProvider.EP_NAME, PsiAugmentProvider.class);
+        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, JavaModuleSystem.EP_NAME, JavaModuleSystem.class);
+        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, TreeGenerator.EP_NAME, TreeGenerator.class);
+        appExtensions.getExtensionPoint(TreeGenerator.EP_NAME).registerExtension(new JavaTreeGenerator(), rootDisposable);
+    }
+
+    private record ArchiveStamp(long size, FileTime lastModified) {
+        static ArchiveStamp of(Path archive) {
+            try {
+                return new ArchiveStamp(Files.size(archive), Files.getLastModifiedTime(archive));
+            } catch (IOException e) {
+                // Archives that cannot be read (anymore) get a stamp that never matches one of a readable archive
+                return new ArchiveStamp(-1, FileTime.fromMillis(0));
+            }
+        }
+    }
+}
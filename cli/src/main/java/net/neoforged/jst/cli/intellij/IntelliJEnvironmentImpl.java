@@ -1,79 +1,71 @@
 package net.neoforged.jst.cli.intellij;
 
 import com.intellij.core.CoreApplicationEnvironment;
-import com.intellij.core.JavaCoreApplicationEnvironment;
 import com.intellij.core.JavaCoreProjectEnvironment;
 import com.intellij.lang.java.JavaLanguage;
 import com.intellij.lang.jvm.facade.JvmElementProvider;
 import com.intellij.mock.MockProject;
 import com.intellij.openapi.Disposable;
-import com.intellij.openapi.application.PathManager;
-import com.intellij.openapi.application.TransactionGuard;
-import com.intellij.openapi.application.TransactionGuardImpl;
 import com.intellij.openapi.roots.LanguageLevelProjectExtension;
 import com.intellij.openapi.util.Disposer;
-import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.vfs.StandardFileSystems;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileSystem;
 import com.intellij.openapi.vfs.impl.ZipHandler;
-import com.intellij.pom.java.InternalPersistentJavaLanguageLevelReaderService;
 import com.intellij.pom.java.LanguageLevel;
-import com.intellij.psi.JavaModuleSystem;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiElementFinder;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiFileFactory;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiNameHelper;
-import com.intellij.psi.augment.PsiAugmentProvider;
-import com.intellij.psi.impl.JavaClassSupersImpl;
 import com.intellij.psi.impl.PsiElementFinderImpl;
 import com.intellij.psi.impl.PsiNameHelperImpl;
 import com.intellij.psi.impl.PsiTreeChangePreprocessor;
-import com.intellij.psi.impl.source.tree.JavaTreeGenerator;
-import com.intellij.psi.impl.source.tree.TreeGenerator;
-import com.intellij.psi.util.JavaClassSupers;
+import com.intellij.util.io.URLUtil;
 import net.neoforged.jst.api.IntelliJEnvironment;
 import net.neoforged.jst.api.Logger;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class IntelliJEnvironmentImpl implements IntelliJEnvironment, AutoCloseable {
 
     private final Logger logger;
-    private final Disposable rootDisposable;
-    private final Path tempDir;
+    private final IntelliJApplicationEnvironment application;
+    private final boolean ownsApplication;
+    private final Disposable projectDisposable;
     private final MockProject project;
     private final JavaCoreProjectEnvironment javaEnv;
     private final PsiManager psiManager;
     private final JavaPsiFacade psiFacade;
+    private final List<Path> classpath = new ArrayList<>();
 
     public IntelliJEnvironmentImpl(Logger logger) throws IOException {
-        this.logger = logger;
-        System.setProperty("java.awt.headless", "true");
-
-        tempDir = Files.createTempDirectory("jst");
-        this.rootDisposable = Disposer.newDisposable();
-        System.setProperty("idea.home.path", tempDir.toAbsolutePath().toString());
+        this(logger, new IntelliJApplicationEnvironment(), true);
+    }
 
-        // IDEA requires a config directory, even if it's empty
-        PathManager.setExplicitConfigPath(tempDir.toAbsolutePath().toString());
-        Registry.markAsLoaded(); // Avoids warnings about config not being loaded
+    /**
+     * Creates a project environment on top of an existing application environment, which is not closed
+     * together with this environment.
+     */
+    public IntelliJEnvironmentImpl(Logger logger, IntelliJApplicationEnvironment application) {
+        this(logger, application, false);
+    }
 
-        var appEnv = new JavaCoreApplicationEnvironment(rootDisposable) {
-            @Override
-            protected VirtualFileSystem createJrtFileSystem() {
-                return new CoreJrtFileSystem();
-            }
-        };
-        initAppExtensionsAndServices(appEnv);
+    private IntelliJEnvironmentImpl(Logger logger, IntelliJApplicationEnvironment application, boolean ownsApplication) {
+        this.logger = logger;
+        this.application = application;
+        this.ownsApplication = ownsApplication;
+        this.projectDisposable = Disposer.newDisposable("jst-project");
+        Disposer.register(application.getRootDisposable(), projectDisposable);
 
-        javaEnv = new JavaCoreProjectEnvironment(rootDisposable, appEnv);
+        javaEnv = new JavaCoreProjectEnvironment(projectDisposable, application.getAppEnv());
 
         project = javaEnv.getProject();
 
@@ -105,17 +97,34 @@ public class IntelliJEnvironmentImpl implements IntelliJEnvironment, AutoCloseab
         return javaEnv;
     }
 
+    /**
+     * @return The archives and folders that were added to the classpath, excluding the JDK.
+     */
+    public List<Path> getClasspath() {
+        return Collections.unmodifiableList(classpath);
+    }
+
     public void addJarToClassPath(Path jarFile) {
+        classpath.add(jarFile);
+        application.registerArchive(jarFile);
         javaEnv.addJarToClassPath(jarFile.toFile());
     }
 
     public void addFolderToClasspath(Path folder) {
         var localFile = getAppEnv().getLocalFileSystem().findFileByNioFile(folder);
         Objects.requireNonNull(localFile);
+        classpath.add(folder);
         javaEnv.addSourcesToClasspath(localFile);
     }
 
     public void addSourceRoot(VirtualFile sourceRoot) {
+        if (StandardFileSystems.JAR_PROTOCOL.equals(sourceRoot.getFileSystem().getProtocol())) {
+            var rootPath = sourceRoot.getPath();
+            var separator = rootPath.indexOf(URLUtil.JAR_SEPARATOR);
+            if (separator != -1) {
+                application.registerArchive(Paths.get(rootPath.substring(0, separator)));
+            }
+        }
         javaEnv.addSourcesToClasspath(sourceRoot);
     }
 
@@ -127,10 +136,13 @@ public class IntelliJEnvironmentImpl implements IntelliJEnvironment, AutoCloseab
 
     @Override
     public void close() throws IOException {
-        // Releases cached ZipFiles within IntelliJ, allowing the tempdir to be deleted
-        ZipHandler.clearFileAccessorCache();
-        Disposer.dispose(rootDisposable);
-        Files.deleteIfExists(tempDir);
+        Disposer.dispose(projectDisposable);
+        if (ownsApplication) {
+            // Releases cached ZipFiles within IntelliJ, allowing the tempdir to be deleted.
+            // A shared application keeps them open for the next job, and reopens archives that changed.
+            ZipHandler.clearFileAccessorCache();
+            application.close();
+        }
     }
 
     @VisibleForTesting
@@ -148,6 +160,8 @@ public class IntelliJEnvironmentImpl implements IntelliJEnvironment, AutoCloseab
      * - A projectService
      * - Extension points marked as area="IDEA_PROJECT"
      * - Any extensions registered for extension points that are area="IDEA_PROJECT"
+     *
+     * Application-level services and extensions are registered in IntelliJApplicationEnvironment.
      */
     private void initProjectExtensionsAndServices(MockProject project) {
         project.registerService(PsiNameHelper.class, PsiNameHelperImpl.class);
@@ -156,30 +170,7 @@ public class IntelliJEnvironmentImpl implements IntelliJEnvironment, AutoCloseab
         CoreApplicationEnvironment.registerExtensionPoint(projectExtensions, PsiTreeChangePreprocessor.EP.getName(), PsiTreeChangePreprocessor.class);
         CoreApplicationEnvironment.registerExtensionPoint(projectExtensions, PsiElementFinder.EP.getName(), PsiElementFinder.class);
         CoreApplicationEnvironment.registerExtensionPoint(projectExtensions, JvmElementProvider.EP_NAME, JvmElementProvider.class);
-        PsiElementFinder.EP.getPoint(project).registerExtension(new PsiElementFinderImpl(project), rootDisposable);
-    }
-
-    /*
-     * When IntelliJ crashes after an update complaining about an extension point or extension not being available,
-     * check JavaPsiPlugin.xml for the name of that extension point. Then register it as it's defined in the XML
-     * by hand here.
-     *
-     * This method is responsible for anything in the XML that is:
-     * - An applicationService
-     * - Extension points not marked as area="IDEA_PROJECT"
-     * - Any extensions registered for extension points that are not marked area="IDEA_PROJECT"
-     */
-    private void initAppExtensionsAndServices(JavaCoreApplicationEnvironment appEnv) {
-        // When any service or extension point is missing, check JavaPsiPlugin.xml in classpath and grab the definition
-        appEnv.registerApplicationService(JavaClassSupers.class, new JavaClassSupersImpl());
-        appEnv.registerApplicationService(InternalPersistentJavaLanguageLevelReaderService.class, new InternalPersistentJavaLanguageLevelReaderService.DefaultImpl());
-        appEnv.registerApplicationService(TransactionGuard.class, new TransactionGuardImpl());
-
-        var appExtensions = appEnv.getApplication().getExtensionArea();
-        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, PsiAugmentProvider.EP_NAME, PsiAugmentProvider.class);
-        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, JavaModuleSystem.EP_NAME, JavaModuleSystem.class);
-        CoreApplicationEnvironment.registerExtensionPoint(appExtensions, TreeGenerator.EP_NAME, TreeGenerator.class);
-        appExtensions.getExtensionPoint(TreeGenerator.EP_NAME).registerExtension(new JavaTreeGenerator(), rootDisposable);
+        PsiElementFinder.EP.getPoint(project).registerExtension(new PsiElementFinderImpl(project), projectDisposable);
     }
 
 }
@@ -0,0 +1,116 @@
+package net.neoforged.jst.cli.io;
+
+import net.neoforged.jst.api.FileEntry;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An entry of an {@link ArchiveFileSource}, which also gives access to its compressed data so that
+ * {@link ArchiveFileSink} can copy it without recompressing.
+ */
+final class ArchiveFileEntry implements FileEntry {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int FLAG_ENCRYPTED = 1;
+
+    private final ZipFile zipFile;
+    private final ZipEntry zipEntry;
+    private final FileChannel channel;
+    /**
+     * The offset of the local header of this entry in the archive, or -1 if it's unknown.
+     */
+    private final long localHeaderOffset;
+
+    ArchiveFileEntry(ZipFile zipFile, ZipEntry zipEntry, FileChannel channel, long localHeaderOffset) {
+        this.zipFile = zipFile;
+        this.zipEntry = zipEntry;
+        this.channel = channel;
+        this.localHeaderOffset = localHeaderOffset;
+    }
+
+    @Override
+    public boolean directory() {
+        return zipEntry.isDirectory();
+    }
+
+    @Override
+    public String relativePath() {
+        return zipEntry.getName();
+    }
+
+    @Override
+    public FileTime lastModified() {
+        return zipEntry.getLastModifiedTime();
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+        return zipFile.getInputStream(zipEntry);
+    }
+
+    ZipEntry zipEntry() {
+        return zipEntry;
+    }
+
+    /**
+     * Finds the start of the compressed data of this entry.
+     *
+     * @return The offset of the data in the archive, or -1 if the data cannot be copied as-is.
+     */
+    long findDataOffset() throws IOException {
+        if (localHeaderOffset < 0) {
+            return -1;
+        }
+
+        var header = ByteBuffer.allocate(LOCAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header, localHeaderOffset);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE || (header.getShort(6) & FLAG_ENCRYPTED) != 0) {
+            return -1;
+        }
+        var nameLength = Short.toUnsignedInt(header.getShort(26));
+        var extraLength = Short.toUnsignedInt(header.getShort(28));
+        return localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+    }
+
+    /**
+     * Copies the compressed data of this entry, which starts at {@code dataOffset}, to {@code out}.
+     */
+    void transferCompressedData(long dataOffset, OutputStream out) throws IOException {
+        var remaining = zipEntry.getCompressedSize();
+        var buffer = ByteBuffer.allocate((int) Math.min(remaining, 64 * 1024));
+        var position = dataOffset;
+        var target = Channels.newChannel(out);
+        while (remaining > 0) {
+            buffer.clear();
+            buffer.limit((int) Math.min(remaining, buffer.capacity()));
+            readFully(buffer, position);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            position += buffer.limit();
+            remaining -= buffer.limit();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            // Positional reads don't modify the channel's position, so they're safe for concurrent use
+            var read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of archive while reading " + zipEntry.getName());
+            }
+            position += read;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package net.neoforged.jst.cli.io;
 
-import net.neoforged.jst.api.FileSink;
+import net.neoforged.jst.api.FileEntry;
+import net.neoforged.jst.cli.OutputCompression;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
-class ArchiveFileSink implements FileSink {
-    private final ZipOutputStream zout;
+class ArchiveFileSink implements PreparingFileSink {
+    private final ZipWriter zout;
+    private final OutputCompression compression;
+    /**
+     * Deflaters are expensive to create, so they are reused by the threads compressing entries.
+     */
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
 
     public ArchiveFileSink(Path path) throws IOException {
-        this.zout = new ZipOutputStream(Files.newOutputStream(path));
+        this(path, OutputCompression.DEFAULT);
+    }
+
+    public ArchiveFileSink(Path path, OutputCompression compression) throws IOException {
+        this.zout = new ZipWriter(Files.newOutputStream(path));
+        this.compression = compression;
     }
 
     @Override
@@ -23,31 +40,80 @@ class ArchiveFileSink implements FileSink {
 
     @Override
     public void putDirectory(String relativePath) throws IOException {
-        if (!relativePath.endsWith("/")) {
-            relativePath += "/";
+        zout.putDirectory(relativePath, FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public void putFile(String relativePath, FileTime lastModified, byte[] content) throws IOException {
+        putPreparedFile(prepareFile(relativePath, lastModified, content));
+    }
+
+    @Override
+    public PreparedFile prepareFile(String relativePath, FileTime lastModified, byte[] content) throws IOException {
+        var crc = new CRC32();
+        crc.update(content);
+
+        if (compression == OutputCompression.STORED) {
+            return new CompressedFile(relativePath, lastModified, ZipEntry.STORED, crc.getValue(), content, content.length);
+        }
+
+        var deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(compression.level(), true);
+        }
+        var compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (var out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(content);
+        } finally {
+            deflater.reset();
+            deflaters.add(deflater);
         }
 
-        var ze = new ZipEntry(relativePath);
-        zout.putNextEntry(ze);
-        zout.closeEntry();
+        return new CompressedFile(relativePath, lastModified, ZipEntry.DEFLATED, crc.getValue(), compressed.toByteArray(), content.length);
     }
 
     @Override
-    public void putFile(String relativePath, FileTime lastModified, byte[] content) throws IOException {
-        var ze = new ZipEntry(relativePath);
-        ze.setLastModifiedTime(lastModified);
-        zout.putNextEntry(ze);
-        zout.write(content);
-        zout.closeEntry();
+    public void putPreparedFile(PreparedFile file) throws IOException {
+        var compressedFile = (CompressedFile) file;
+        zout.putEntry(compressedFile.relativePath, compressedFile.lastModified, compressedFile.method, compressedFile.crc, compressedFile.data, compressedFile.size);
+    }
+
+    @Override
+    public void copyFile(FileEntry entry) throws IOException {
+        // Entries of source archives can be copied without decompressing and recompressing them
+        if (entry instanceof ArchiveFileEntry archiveEntry) {
+            var dataOffset = archiveEntry.findDataOffset();
+            if (dataOffset != -1) {
+                var zipEntry = archiveEntry.zipEntry();
+                zout.putEntry(zipEntry.getName(), entry.lastModified(), zipEntry.getMethod(), zipEntry.getCrc(),
+                        zipEntry.getCompressedSize(), zipEntry.getSize(), out -> archiveEntry.transferCompressedData(dataOffset, out));
+                return;
+            }
+        }
+        PreparingFileSink.super.copyFile(entry);
     }
 
     @Override
     public void close() throws IOException {
-        this.zout.close();
+        try {
+            this.zout.close();
+        } finally {
+            Deflater deflater;
+            while ((deflater = deflaters.poll()) != null) {
+                deflater.end();
+            }
+        }
     }
 
     @Override
     public boolean canHaveMultipleEntries() {
         return true;
     }
+
+    private record CompressedFile(String relativePath, FileTime lastModified, int method, long crc, byte[] data, long size) implements PreparedFile {
+        @Override
+        public int memorySize() {
+            return data.length;
+        }
+    }
 }
@@ -3,12 +3,18 @@ package net.neoforged.jst.cli.io;
 import com.intellij.openapi.vfs.StandardFileSystems;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
-import net.neoforged.jst.api.FileEntries;
 import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.FileSource;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -18,10 +24,17 @@ import java.util.zip.ZipFile;
 class ArchiveFileSource implements FileSource {
     private final Path path;
     private final ZipFile zipFile;
+    /**
+     * Used to read the compressed data of entries, see {@link ArchiveFileEntry}.
+     */
+    private final FileChannel channel;
+    private final Map<String, Long> localHeaderOffsets;
 
     public ArchiveFileSource(Path path) throws IOException {
         this.path = path;
         this.zipFile = new ZipFile(path.toFile());
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.localHeaderOffsets = readLocalHeaderOffsets(channel);
     }
 
     @Override
@@ -37,7 +50,7 @@ class ArchiveFileSource implements FileSource {
                 Spliterator.IMMUTABLE | Spliterator.ORDERED
         );
         return StreamSupport.stream(spliterator, false)
-                .map(ze -> FileEntries.ofZipEntry(zipFile, ze));
+                .map(ze -> new ArchiveFileEntry(zipFile, ze, channel, localHeaderOffsets.getOrDefault(ze.getName(), -1L)));
     }
 
     @Override
@@ -52,6 +65,112 @@ class ArchiveFileSource implements FileSource {
 
     @Override
     public void close() throws IOException {
-        zipFile.close();
+        try (channel) {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * {@link ZipFile} does not expose where the data of an entry is located, so the central directory has
+     * to be read a second time to find it.
+     * Archives that cannot be understood here result in an empty map, and their entries are recompressed when copied.
+     */
+    private static Map<String, Long> readLocalHeaderOffsets(FileChannel channel) throws IOException {
+        var fileSize = channel.size();
+        // The end of central directory record is at least 22 bytes, followed by a comment of at most 65535 bytes
+        var tailSize = (int) Math.min(fileSize, 22 + 0xFFFF);
+        var tail = readAt(channel, fileSize - tailSize, tailSize);
+        int eocd = -1;
+        for (int i = tailSize - 22; i >= 0; i--) {
+            if (tail.getInt(i) == 0x06054b50) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd == -1) {
+            return Map.of();
+        }
+
+        long entryCount = Short.toUnsignedInt(tail.getShort(eocd + 10));
+        long centralDirectorySize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long centralDirectoryOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+        if (entryCount == 0xFFFF || centralDirectorySize == 0xFFFFFFFFL || centralDirectoryOffset == 0xFFFFFFFFL) {
+            // Zip64 archive, the actual values are in the zip64 end of central directory record found through its locator
+            var locator = eocd - 20;
+            if (locator < 0 || tail.getInt(locator) != 0x07064b50) {
+                return Map.of();
+            }
+            var zip64Eocd = readAt(channel, tail.getLong(locator + 8), 56);
+            if (zip64Eocd.getInt(0) != 0x06064b50) {
+                return Map.of();
+            }
+            entryCount = zip64Eocd.getLong(32);
+            centralDirectorySize = zip64Eocd.getLong(40);
+            centralDirectoryOffset = zip64Eocd.getLong(48);
+        }
+        if (centralDirectoryOffset + centralDirectorySize > fileSize || centralDirectorySize > Integer.MAX_VALUE) {
+            // I.e. data was prepended to the archive, which would shift all offsets
+            return Map.of();
+        }
+
+        var centralDirectory = readAt(channel, centralDirectoryOffset, (int) centralDirectorySize);
+        var offsets = new HashMap<String, Long>((int) Math.min(entryCount, 1 << 20) * 2);
+        int pos = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (pos + 46 > centralDirectory.limit() || centralDirectory.getInt(pos) != 0x02014b50) {
+                return Map.of();
+            }
+            var size = Integer.toUnsignedLong(centralDirectory.getInt(pos + 24));
+            var compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(pos + 20));
+            var nameLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 28));
+            var extraLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 30));
+            var commentLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(pos + 42));
+
+            var nameBytes = new byte[nameLength];
+            centralDirectory.get(pos + 46, nameBytes);
+            var name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (localHeaderOffset == 0xFFFFFFFFL) {
+                // The zip64 extra field contains the values that don't fit into the header, in this order
+                var extraPos = pos + 46 + nameLength;
+                var extraEnd = extraPos + extraLength;
+                localHeaderOffset = -1;
+                while (extraPos + 4 <= extraEnd) {
+                    var id = Short.toUnsignedInt(centralDirectory.getShort(extraPos));
+                    var length = Short.toUnsignedInt(centralDirectory.getShort(extraPos + 2));
+                    if (id == 0x0001) {
+                        var fieldPos = extraPos + 4;
+                        if (size == 0xFFFFFFFFL) {
+                            fieldPos += 8;
+                        }
+                        if (compressedSize == 0xFFFFFFFFL) {
+                            fieldPos += 8;
+                        }
+                        if (fieldPos + 8 <= extraPos + 4 + length) {
+                            localHeaderOffset = centralDirectory.getLong(fieldPos);
+                        }
+                        break;
+                    }
+                    extraPos += 4 + length;
+                }
+            }
+
+            if (localHeaderOffset >= 0) {
+                offsets.put(name, localHeaderOffset);
+            }
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+        return offsets;
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+        }
+        return buffer.flip();
     }
 }
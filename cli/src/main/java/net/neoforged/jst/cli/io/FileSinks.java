@@ -2,6 +2,7 @@ package net.neoforged.jst.cli.io;
 
 import net.neoforged.jst.api.FileSink;
 import net.neoforged.jst.api.FileSource;
+import net.neoforged.jst.cli.OutputCompression;
 import net.neoforged.jst.cli.PathType;
 
 import java.io.IOException;
@@ -13,6 +14,13 @@ public final class FileSinks {
     }
 
     public static FileSink create(Path path, PathType format, FileSource source) throws IOException {
+        return create(path, format, source, OutputCompression.DEFAULT);
+    }
+
+    /**
+     * @param compression How entries are compressed if the sink is an archive.
+     */
+    public static FileSink create(Path path, PathType format, FileSource source, OutputCompression compression) throws IOException {
         if (format == PathType.AUTO) {
             if (source instanceof SingleFileSource) {
                 format = PathType.FILE;
@@ -32,7 +40,7 @@ public final class FileSinks {
         return switch (format) {
             case AUTO -> throw new IllegalArgumentException("Do not support AUTO for output when input also was AUTO!");
             case FILE -> new SingleFileSink(path);
-            case ARCHIVE -> new ArchiveFileSink(path);
+            case ARCHIVE -> new ArchiveFileSink(path, compression);
             case FOLDER -> new FolderFileSink(path);
         };
     }
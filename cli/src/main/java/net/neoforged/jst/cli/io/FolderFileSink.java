@@ -34,4 +34,9 @@ record FolderFileSink(Path path) implements FileSink {
     public boolean isOrdered() {
         return false;
     }
+
+    @Override
+    public boolean isOrderSensitive() {
+        return false;
+    }
 }
@@ -0,0 +1,30 @@
+package net.neoforged.jst.cli.io;
+
+import net.neoforged.jst.api.FileSink;
+
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A sink that can do the expensive part of writing a file, such as compressing it, ahead of time and on any thread.
+ * This allows the work to be spread over the threads that produce the files, while they are still written
+ * to the sink one after the other.
+ */
+public interface PreparingFileSink extends FileSink {
+    /**
+     * Prepares a file to be written by {@link #putPreparedFile}. Can be called concurrently.
+     */
+    PreparedFile prepareFile(String relativePath, FileTime lastModified, byte[] content) throws IOException;
+
+    /**
+     * Writes a file that was previously prepared by this sink.
+     */
+    void putPreparedFile(PreparedFile file) throws IOException;
+
+    interface PreparedFile {
+        /**
+         * @return The number of bytes held in memory by this prepared file.
+         */
+        int memorySize();
+    }
+}
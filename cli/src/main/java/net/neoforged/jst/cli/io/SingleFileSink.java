@@ -36,4 +36,9 @@ record SingleFileSink(Path path) implements FileSink {
     public boolean isOrdered() {
         return false;
     }
+
+    @Override
+    public boolean isOrderSensitive() {
+        return false;
+    }
 }
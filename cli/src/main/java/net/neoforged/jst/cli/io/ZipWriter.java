@@ -0,0 +1,266 @@
+package net.neoforged.jst.cli.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes zip archives whose entries are already compressed, which {@link java.util.zip.ZipOutputStream} does not
+ * support. This allows copying entries from another archive without recompressing them.
+ * <p>
+ * Since the sizes and CRC of every entry are known up-front, no data descriptors are written.
+ */
+final class ZipWriter implements Closeable {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int EXTENDED_TIMESTAMP_EXTRA_ID = 0x5455;
+
+    private static final int FLAG_UTF8 = 1 << 11;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    private final CountingOutputStream out;
+    private final List<CentralDirectoryEntry> entries = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Writes the compressed data of an entry.
+     */
+    @FunctionalInterface
+    interface DataWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    ZipWriter(OutputStream out) {
+        this.out = new CountingOutputStream(new BufferedOutputStream(out));
+    }
+
+    void putDirectory(String name, FileTime lastModified) throws IOException {
+        if (!name.endsWith("/")) {
+            name += "/";
+        }
+        putEntry(name, lastModified, ZipEntry.STORED, 0, 0, 0, stream -> {
+        });
+    }
+
+    void putEntry(String name, FileTime lastModified, int method, long crc, byte[] compressedData, long size) throws IOException {
+        putEntry(name, lastModified, method, crc, compressedData.length, size, stream -> stream.write(compressedData));
+    }
+
+    /**
+     * @param compressedSize The number of bytes {@code data} will write.
+     */
+    void putEntry(String name, FileTime lastModified, int method, long crc, long compressedSize, long size, DataWriter data) throws IOException {
+        var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        var entry = new CentralDirectoryEntry(nameBytes, toDosTime(lastModified), toUnixTime(lastModified), method, crc, compressedSize, size, out.written);
+        var zip64 = compressedSize >= ZIP64_MAGIC || size >= ZIP64_MAGIC;
+
+        var extra = new ByteArrayOutputStream();
+        if (zip64) {
+            writeShort(extra, ZIP64_EXTRA_ID);
+            writeShort(extra, 16);
+            writeLong(extra, size);
+            writeLong(extra, compressedSize);
+        }
+        writeTimestampExtra(extra, entry);
+
+        writeInt(out, LOCAL_HEADER_SIGNATURE);
+        writeShort(out, versionNeeded(method, zip64));
+        writeShort(out, FLAG_UTF8);
+        writeShort(out, method);
+        writeInt(out, entry.dosTime);
+        writeInt(out, crc);
+        writeInt(out, zip64 ? ZIP64_MAGIC : compressedSize);
+        writeInt(out, zip64 ? ZIP64_MAGIC : size);
+        writeShort(out, nameBytes.length);
+        writeShort(out, extra.size());
+        out.write(nameBytes);
+        extra.writeTo(out);
+
+        var dataStart = out.written;
+        data.writeTo(out);
+        if (out.written - dataStart != compressedSize) {
+            throw new IllegalStateException("Expected " + compressedSize + " bytes of data for " + name + ", but got " + (out.written - dataStart));
+        }
+
+        entries.add(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        var centralDirectoryOffset = out.written;
+        for (var entry : entries) {
+            writeCentralDirectoryEntry(entry);
+        }
+        var centralDirectorySize = out.written - centralDirectoryOffset;
+
+        if (entries.size() >= ZIP64_MAGIC_COUNT || centralDirectoryOffset >= ZIP64_MAGIC || centralDirectorySize >= ZIP64_MAGIC) {
+            var zip64EndOffset = out.written;
+            writeInt(out, ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            writeLong(out, 44); // Size of the remaining record
+            writeShort(out, 45); // Version made by
+            writeShort(out, 45); // Version needed
+            writeInt(out, 0); // Number of this disk
+            writeInt(out, 0); // Disk with the central directory
+            writeLong(out, entries.size());
+            writeLong(out, entries.size());
+            writeLong(out, centralDirectorySize);
+            writeLong(out, centralDirectoryOffset);
+
+            writeInt(out, ZIP64_LOCATOR_SIGNATURE);
+            writeInt(out, 0); // Disk with the zip64 end of central directory
+            writeLong(out, zip64EndOffset);
+            writeInt(out, 1); // Total number of disks
+        }
+
+        writeInt(out, END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+        writeShort(out, 0); // Number of this disk
+        writeShort(out, 0); // Disk with the central directory
+        writeShort(out, Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+        writeShort(out, Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+        writeInt(out, Math.min(centralDirectorySize, ZIP64_MAGIC));
+        writeInt(out, Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+        writeShort(out, 0); // Comment length
+
+        out.close();
+    }
+
+    private void writeCentralDirectoryEntry(CentralDirectoryEntry entry) throws IOException {
+        var extra = new ByteArrayOutputStream();
+        var zip64Fields = new ByteArrayOutputStream();
+        // The zip64 extra field only contains the values that don't fit into the regular header, in this order
+        if (entry.size >= ZIP64_MAGIC) {
+            writeLong(zip64Fields, entry.size);
+        }
+        if (entry.compressedSize >= ZIP64_MAGIC) {
+            writeLong(zip64Fields, entry.compressedSize);
+        }
+        if (entry.localHeaderOffset >= ZIP64_MAGIC) {
+            writeLong(zip64Fields, entry.localHeaderOffset);
+        }
+        var zip64 = zip64Fields.size() > 0;
+        if (zip64) {
+            writeShort(extra, ZIP64_EXTRA_ID);
+            writeShort(extra, zip64Fields.size());
+            zip64Fields.writeTo(extra);
+        }
+        writeTimestampExtra(extra, entry);
+
+        var version = versionNeeded(entry.method, zip64);
+        writeInt(out, CENTRAL_HEADER_SIGNATURE);
+        writeShort(out, version); // Version made by
+        writeShort(out, version);
+        writeShort(out, FLAG_UTF8);
+        writeShort(out, entry.method);
+        writeInt(out, entry.dosTime);
+        writeInt(out, entry.crc);
+        writeInt(out, Math.min(entry.compressedSize, ZIP64_MAGIC));
+        writeInt(out, Math.min(entry.size, ZIP64_MAGIC));
+        writeShort(out, entry.name.length);
+        writeShort(out, extra.size());
+        writeShort(out, 0); // Comment length
+        writeShort(out, 0); // Disk number start
+        writeShort(out, 0); // Internal attributes
+        writeInt(out, 0); // External attributes
+        writeInt(out, Math.min(entry.localHeaderOffset, ZIP64_MAGIC));
+        out.write(entry.name);
+        extra.writeTo(out);
+    }
+
+    /**
+     * Same as {@link java.util.zip.ZipOutputStream}, the modification time is also stored with second precision
+     * in an extended timestamp field, since the DOS time only has a two-second precision and no time zone.
+     */
+    private static void writeTimestampExtra(OutputStream out, CentralDirectoryEntry entry) throws IOException {
+        if (entry.unixTime >= 0 && entry.unixTime <= ZIP64_MAGIC) {
+            writeShort(out, EXTENDED_TIMESTAMP_EXTRA_ID);
+            writeShort(out, 5);
+            out.write(1); // Only the modification time is present
+            writeInt(out, entry.unixTime);
+        }
+    }
+
+    private static int versionNeeded(int method, boolean zip64) {
+        if (zip64) {
+            return 45;
+        }
+        return method == ZipEntry.STORED ? 10 : 20;
+    }
+
+    private static long toUnixTime(FileTime time) {
+        return time.toMillis() / 1000;
+    }
+
+    private static long toDosTime(FileTime time) {
+        var dateTime = LocalDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault());
+        if (dateTime.getYear() < 1980) {
+            // The earliest time representable in DOS format
+            return (1 << 21) | (1 << 16);
+        }
+        return (long) (dateTime.getYear() - 1980) << 25
+                | (long) dateTime.getMonthValue() << 21
+                | (long) dateTime.getDayOfMonth() << 16
+                | (long) dateTime.getHour() << 11
+                | (long) dateTime.getMinute() << 5
+                | (long) dateTime.getSecond() >> 1;
+    }
+
+    private static void writeShort(OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private static void writeInt(OutputStream out, long value) throws IOException {
+        writeShort(out, (int) (value & 0xFFFF));
+        writeShort(out, (int) ((value >>> 16) & 0xFFFF));
+    }
+
+    private static void writeLong(OutputStream out, long value) throws IOException {
+        writeInt(out, value & 0xFFFFFFFFL);
+        writeInt(out, value >>> 32);
+    }
+
+    private record CentralDirectoryEntry(byte[] name, long dosTime, long unixTime, int method, long crc,
+                                         long compressedSize, long size, long localHeaderOffset) {
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long written;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package net.neoforged.jst.cli;
+
+import net.neoforged.jst.api.FileSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedParallelWorkQueueTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testOrderSensitiveSinkKeepsSubmissionOrder() throws Exception {
+        var sink = new RecordingSink(true);
+        var firstEntryDone = new CountDownLatch(1);
+        try (var queue = new OrderedParallelWorkQueue(sink, 10, Long.MAX_VALUE, executor)) {
+            queue.submitAsync(s -> {
+                awaitQuietly(firstEntryDone);
+                putFile(s, "first");
+            });
+            queue.submitAsync(s -> {
+                putFile(s, "second");
+                firstEntryDone.countDown();
+            });
+        }
+
+        assertThat(sink.written).containsExactly("first", "second");
+    }
+
+    @Test
+    void testOrderInsensitiveSinkWritesInCompletionOrder() throws Exception {
+        var sink = new RecordingSink(false);
+        var secondEntryWritten = new CountDownLatch(1);
+        try (var queue = new OrderedParallelWorkQueue(sink, 2, Long.MAX_VALUE, executor)) {
+            queue.submitAsync(s -> {
+                // Only completes once the second entry was written to the sink, which requires not waiting for this one
+                awaitQuietly(secondEntryWritten);
+                putFile(s, "first");
+            });
+            queue.submitAsync(s -> putFile(s, "second"));
+            // The queue is full, so this submission has to drain a completed entry first
+            queue.submitAsync(s -> putFile(s, "third"));
+            secondEntryWritten.countDown();
+        }
+
+        assertThat(sink.written).startsWith("second").containsExactlyInAnyOrder("first", "second", "third");
+    }
+
+    @Test
+    void testByteBudgetDrainsBeforeSubmitting() throws Exception {
+        var sink = new RecordingSink(true);
+        var writtenBeforeSecondEntry = new ArrayList<String>();
+        var firstEntryProduced = new CountDownLatch(1);
+        try (var queue = new OrderedParallelWorkQueue(sink, 10, 5, executor)) {
+            queue.submitAsync(s -> {
+                putFile(s, "first", 10);
+                firstEntryProduced.countDown();
+            });
+            firstEntryProduced.await();
+            queue.submitAsync(s -> {
+                writtenBeforeSecondEntry.addAll(sink.written);
+                putFile(s, "second", 1);
+            });
+        }
+
+        // The first entry exceeds the budget on its own, so it has to be written before more work is submitted
+        assertThat(writtenBeforeSecondEntry).containsExactly("first");
+        assertThat(sink.written).containsExactly("first", "second");
+    }
+
+    private static void putFile(FileSink sink, String name) {
+        putFile(sink, name, 0);
+    }
+
+    private static void putFile(FileSink sink, String name, int size) {
+        try {
+            sink.putFile(name, FileTime.fromMillis(0), new byte[size]);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record RecordingSink(boolean isOrderSensitive, List<String> written) implements FileSink {
+        RecordingSink(boolean isOrderSensitive) {
+            this(isOrderSensitive, new ArrayList<>());
+        }
+
+        @Override
+        public boolean canHaveMultipleEntries() {
+            return true;
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return false;
+        }
+
+        @Override
+        public void putDirectory(String relativePath) {
+            written.add(relativePath);
+        }
+
+        @Override
+        public void putFile(String relativePath, FileTime lastModified, byte[] content) {
+            written.add(relativePath);
+        }
+    }
+}
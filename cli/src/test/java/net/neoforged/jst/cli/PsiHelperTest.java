@@ -123,6 +123,19 @@ class PsiHelperTest {
             assertEquals("(Ljava/lang/String;II)V", PsiHelper.getBinaryMethodSignature(ctor));
         }
 
+        @Test
+        void testParameterDescriptors() {
+            assertThat(PsiHelper.getParameterDescriptors(ctor))
+                    .containsExactly("Ljava/lang/String;I", "I");
+        }
+
+        @Test
+        void testPossibleSignaturesKeepImplicitParametersTogether() {
+            assertThat(PsiHelper.getOverloadedSignatures(ctor))
+                    .toIterable()
+                    .containsExactly("(Ljava/lang/String;II)V", "(Ljava/lang/String;I)V");
+        }
+
         @Test
         void testMethodParameterIndices() {
             // Binary parameters are:
@@ -155,6 +168,12 @@ class PsiHelperTest {
             assertEquals("(LOuter;I)V", PsiHelper.getBinaryMethodSignature(ctor));
         }
 
+        @Test
+        void testParameterDescriptors() {
+            assertThat(PsiHelper.getParameterDescriptors(ctor))
+                    .containsExactly("LOuter;", "I");
+        }
+
         @Test
         void testMethodParameterIndices() {
             // Binary parameters are:
@@ -210,6 +229,20 @@ class PsiHelperTest {
                 .containsExactly("(IZJ)Z", "(IZ)Z", "(I)Z");
     }
 
+    @Test
+    void testParameterDescriptors() {
+        var m = parseSingleMethod("""
+                class Outer {
+                    static String[] m(int p1, java.util.List<String> p2, long[][] p3) {
+                        return null;
+                    }
+                }
+                """);
+        assertThat(PsiHelper.getParameterDescriptors(m))
+                .containsExactly("I", "Ljava/util/List;", "[[J");
+        assertEquals("[Ljava/lang/String;", PsiHelper.getReturnTypeDescriptor(m));
+    }
+
     @Test
     void testLvtIndicesForPrimitiveTypes() {
         var m = parseSingleMethod("""
@@ -0,0 +1,90 @@
+package net.neoforged.jst.cli;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiLocalVariable;
+import com.intellij.psi.PsiMethod;
+import net.neoforged.jst.api.Logger;
+import net.neoforged.jst.api.PsiStructuralElementVisitor;
+import net.neoforged.jst.cli.intellij.IntelliJEnvironmentImpl;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PsiStructuralElementVisitorTest {
+    private static final String SOURCE = """
+            class Outer {
+                Object field = new Object() {
+                    int anonymousField;
+                };
+
+                void method() {
+                    int local = 0;
+                    class Local {
+                        void localMethod() {
+                        }
+                    }
+                }
+
+                static class Inner {
+                    int innerField;
+                }
+            }
+            """;
+
+    static IntelliJEnvironmentImpl ijEnv;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        ijEnv = new IntelliJEnvironmentImpl(new Logger(null, null));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        ijEnv.close();
+    }
+
+    @Test
+    void testOnlyDeclarationsAreVisited() {
+        assertThat(collectDeclarations(false)).containsExactly(
+                "class Outer", "field field", "method method", "class Inner", "field innerField"
+        );
+    }
+
+    @Test
+    void testLocalClassesAreVisitedIfRequested() {
+        assertThat(collectDeclarations(true)).containsExactly(
+                "class Outer", "field field", "class null", "field anonymousField", "method method",
+                "class Local", "method localMethod", "class Inner", "field innerField"
+        );
+    }
+
+    private List<String> collectDeclarations(boolean visitLocalClasses) {
+        var file = ijEnv.parseFileFromMemory("Outer.java", SOURCE);
+        var declarations = new ArrayList<String>();
+        file.accept(new PsiStructuralElementVisitor(visitLocalClasses) {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof PsiClass psiClass) {
+                    declarations.add("class " + psiClass.getName());
+                } else if (element instanceof PsiField field) {
+                    declarations.add("field " + field.getName());
+                } else if (element instanceof PsiMethod method) {
+                    declarations.add("method " + method.getName());
+                } else if (element instanceof PsiLocalVariable variable) {
+                    declarations.add("local " + variable.getName());
+                }
+                super.visitElement(element);
+            }
+        });
+        return declarations;
+    }
+}
@@ -0,0 +1,178 @@
+package net.neoforged.jst.cli.io;
+
+import net.neoforged.jst.cli.OutputCompression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveFileSinkTest {
+    private static final FileTime TIME = FileTime.fromMillis(1700000000000L);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrittenEntriesCanBeRead() throws IOException {
+        var output = tempDir.resolve("output.zip");
+        try (var sink = new ArchiveFileSink(output)) {
+            sink.putDirectory("dir");
+            sink.putFile("dir/File.java", TIME, "class File {}".getBytes(StandardCharsets.UTF_8));
+            sink.putFile("dir/Ünicode.txt", TIME, new byte[0]);
+        }
+
+        try (var zf = new ZipFile(output.toFile())) {
+            assertThat(zf.stream().map(ZipEntry::getName)).containsExactly("dir/", "dir/File.java", "dir/Ünicode.txt");
+            assertThat(zf.getEntry("dir/").isDirectory()).isTrue();
+            var entry = zf.getEntry("dir/File.java");
+            assertThat(entry.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            assertThat(entry.getLastModifiedTime()).isEqualTo(TIME);
+            assertThat(new String(zf.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("class File {}");
+            assertThat(zf.getInputStream(zf.getEntry("dir/Ünicode.txt")).readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void testStoredEntriesAreNotCompressed() throws IOException {
+        var content = "class File {}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        var output = tempDir.resolve("output.zip");
+        try (var sink = new ArchiveFileSink(output, OutputCompression.STORED)) {
+            sink.putFile("File.java", TIME, content);
+        }
+
+        try (var zf = new ZipFile(output.toFile())) {
+            var entry = zf.getEntry("File.java");
+            assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+            assertThat(entry.getCompressedSize()).isEqualTo(content.length);
+            var crc = new CRC32();
+            crc.update(content);
+            assertThat(entry.getCrc()).isEqualTo(crc.getValue());
+            assertThat(zf.getInputStream(entry).readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void testCompressionLevels() throws IOException {
+        var content = "class File {}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        for (var compression : OutputCompression.values()) {
+            var output = tempDir.resolve(compression + ".zip");
+            try (var sink = new ArchiveFileSink(output, compression)) {
+                sink.putFile("File.java", TIME, content);
+            }
+
+            try (var zf = new ZipFile(output.toFile())) {
+                assertThat(zf.getInputStream(zf.getEntry("File.java")).readAllBytes()).isEqualTo(content);
+            }
+        }
+    }
+
+    @Test
+    void testCopiedEntriesKeepTheirCompressedData() throws IOException {
+        var deflatedContent = "deflated ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        var storedContent = "stored".getBytes(StandardCharsets.UTF_8);
+
+        var input = tempDir.resolve("input.zip");
+        try (var zos = new ZipOutputStream(Files.newOutputStream(input))) {
+            var deflated = new ZipEntry("assets/deflated.txt");
+            deflated.setLastModifiedTime(TIME);
+            zos.putNextEntry(deflated);
+            zos.write(deflatedContent);
+            zos.closeEntry();
+
+            var stored = new ZipEntry("assets/stored.bin");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(storedContent.length);
+            var crc = new CRC32();
+            crc.update(storedContent);
+            stored.setCrc(crc.getValue());
+            zos.putNextEntry(stored);
+            zos.write(storedContent);
+            zos.closeEntry();
+        }
+
+        var output = tempDir.resolve("output.zip");
+        try (var source = new ArchiveFileSource(input);
+             var sink = new ArchiveFileSink(output);
+             var entries = source.streamEntries()) {
+            for (var entry : entries.toList()) {
+                assertThat(entry).isInstanceOf(ArchiveFileEntry.class);
+                assertThat(((ArchiveFileEntry) entry).findDataOffset()).isNotEqualTo(-1);
+                sink.copyFile(entry);
+            }
+        }
+
+        try (var in = new ZipFile(input.toFile()); var out = new ZipFile(output.toFile())) {
+            for (var name : new String[]{"assets/deflated.txt", "assets/stored.bin"}) {
+                var original = in.getEntry(name);
+                var copy = out.getEntry(name);
+                assertThat(copy.getMethod()).isEqualTo(original.getMethod());
+                assertThat(copy.getCrc()).isEqualTo(original.getCrc());
+                assertThat(copy.getCompressedSize()).isEqualTo(original.getCompressedSize());
+                assertThat(copy.getSize()).isEqualTo(original.getSize());
+                assertThat(out.getInputStream(copy).readAllBytes()).isEqualTo(in.getInputStream(original).readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void testFilesPreparedConcurrentlyAreWrittenInOrder() throws Exception {
+        var output = tempDir.resolve("output.zip");
+        var fileCount = 100;
+        try (var sink = new ArchiveFileSink(output)) {
+            var preparedFiles = IntStream.range(0, fileCount)
+                    .parallel()
+                    .mapToObj(i -> {
+                        try {
+                            return sink.prepareFile("file" + i, TIME, ("content " + i).repeat(i).getBytes(StandardCharsets.UTF_8));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+            for (var preparedFile : preparedFiles) {
+                sink.putPreparedFile(preparedFile);
+            }
+        }
+
+        try (var zf = new ZipFile(output.toFile())) {
+            assertThat(zf.stream().map(ZipEntry::getName)).containsExactlyElementsOf(IntStream.range(0, fileCount).mapToObj(i -> "file" + i).toList());
+            for (int i = 0; i < fileCount; i++) {
+                assertThat(new String(zf.getInputStream(zf.getEntry("file" + i)).readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(("content " + i).repeat(i));
+            }
+        }
+    }
+
+    @Test
+    void testZip64EntryCount() throws IOException {
+        var output = tempDir.resolve("output.zip");
+        var entryCount = 0x10000 + 10;
+        try (var sink = new ArchiveFileSink(output)) {
+            for (int i = 0; i < entryCount; i++) {
+                sink.putFile("file" + i, TIME, new byte[]{(byte) i});
+            }
+        }
+
+        try (var zf = new ZipFile(output.toFile())) {
+            assertThat(zf.size()).isEqualTo(entryCount);
+            assertThat(zf.getInputStream(zf.getEntry("file" + (entryCount - 1))).readAllBytes()).containsExactly((byte) (entryCount - 1));
+        }
+
+        // Reading the offsets of a zip64 archive for copying its entries
+        try (var source = new ArchiveFileSource(output); var entries = source.streamEntries()) {
+            var last = (ArchiveFileEntry) entries.reduce((a, b) -> b).orElseThrow();
+            assertThat(last.findDataOffset()).isNotEqualTo(-1);
+        }
+    }
+}
@@ -4,11 +4,11 @@ import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiClassType;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiRecursiveElementVisitor;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.util.ClassUtil;
 import com.intellij.util.containers.MultiMap;
 import net.neoforged.jst.api.ImportHelper;
+import net.neoforged.jst.api.PsiStructuralElementVisitor;
 import net.neoforged.jst.api.Replacements;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,7 +19,7 @@ import java.util.Comparator;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
-class InjectInterfacesVisitor extends PsiRecursiveElementVisitor {
+class InjectInterfacesVisitor extends PsiStructuralElementVisitor {
     private final Replacements replacements;
     private final MultiMap<String, String> interfaces;
     private final StubStore stubs;
@@ -52,7 +52,7 @@ class InjectInterfacesVisitor extends PsiRecursiveElementVisitor {
 
     @Override
     public void visitFile(@NotNull PsiFile file) {
-        file.acceptChildren(this);
+        visitChildren(file);
     }
 
     private void inject(PsiClass psiClass, Collection<String> targets) {
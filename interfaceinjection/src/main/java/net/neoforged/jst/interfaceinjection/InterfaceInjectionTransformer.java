@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.intellij.psi.PsiFile;
 import com.intellij.util.containers.MultiMap;
+import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.Replacements;
 import net.neoforged.jst.api.SourceTransformer;
 import net.neoforged.jst.api.TransformContext;
@@ -15,7 +16,11 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class InterfaceInjectionTransformer implements SourceTransformer {
     private static final Gson GSON = new Gson();
@@ -32,18 +37,18 @@ public class InterfaceInjectionTransformer implements SourceTransformer {
     public List<Path> paths = new ArrayList<>();
 
     private MultiMap<String, String> interfaces;
+    @Nullable
+    private IOException loadFailure;
     private StubStore stubs;
     private String marker;
 
     @Override
-    public void beforeRun(TransformContext context) {
-        interfaces = new MultiMap<>();
-        stubs = new StubStore(context.logger(), context.environment().getPsiFacade());
-
-        if (annotationMarker != null) {
-            marker = annotationMarker.replace('/', '.').replace('$', '.');
-        }
+    public CompletableFuture<?> prepareAsync(Executor executor) {
+        return CompletableFuture.runAsync(this::loadData, executor);
+    }
 
+    private void loadData() {
+        interfaces = new MultiMap<>();
         for (Path path : paths) {
             try {
                 var json = GSON.fromJson(Files.readString(path), JsonObject.class);
@@ -56,10 +61,48 @@ public class InterfaceInjectionTransformer implements SourceTransformer {
                     }
                 }
             } catch (IOException exception) {
-                context.logger().error("Failed to read interface injection data file: %s", exception.getMessage());
-                throw new UncheckedIOException(exception);
+                // Logged in beforeRun, where the logger is available
+                loadFailure = exception;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void beforeRun(TransformContext context) {
+        if (loadFailure != null) {
+            context.logger().error("Failed to read interface injection data file: %s", loadFailure.getMessage());
+            throw new UncheckedIOException(loadFailure);
+        }
+
+        stubs = new StubStore(context.logger(), context.environment().getPsiFacade());
+
+        if (annotationMarker != null) {
+            marker = annotationMarker.replace('/', '.').replace('$', '.');
+        }
+    }
+
+    @Override
+    public Collection<String> getAffectedClasses() {
+        return interfaces.keySet();
+    }
+
+    @Override
+    public @Nullable String getCacheFingerprint(FileEntry fileEntry) {
+        // The stubs are collected while visiting files
+        if (stubOut != null) {
+            return null;
+        }
+
+        var path = fileEntry.relativePath();
+        var className = path.substring(0, path.length() - ".java".length());
+        var injected = new TreeMap<String, List<String>>();
+        for (var entry : interfaces.entrySet()) {
+            if (entry.getKey().equals(className) || entry.getKey().startsWith(className + "$")) {
+                injected.put(entry.getKey(), List.copyOf(entry.getValue()));
             }
         }
+        return marker + " " + injected;
     }
 
     @Override
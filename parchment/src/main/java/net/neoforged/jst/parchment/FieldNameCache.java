@@ -0,0 +1,59 @@
+package net.neoforged.jst.parchment;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Caches the names of all fields of classes, including inherited ones, across all files transformed in a run.
+ * <p>
+ * Classes are cached by their qualified name, and the least recently used ones are evicted once the cache is full.
+ * Classes without a qualified name, such as local and anonymous classes, are not cached themselves, but the fields
+ * they inherit are.
+ */
+public final class FieldNameCache {
+    private final LruCache<String, Set<String>> fieldNames;
+
+    public FieldNameCache() {
+        this(LruCache.DEFAULT_MAX_SIZE);
+    }
+
+    public FieldNameCache(int maxSize) {
+        this.fieldNames = new LruCache<>(maxSize);
+    }
+
+    public Set<String> getAllFieldNames(PsiClass psiClass) {
+        return getAllFieldNames(psiClass, new HashSet<>());
+    }
+
+    private Set<String> getAllFieldNames(PsiClass psiClass, Set<PsiClass> visiting) {
+        var qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            var cached = fieldNames.get(qualifiedName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        var names = new HashSet<String>();
+        // Guards against cyclic hierarchies in broken code
+        if (visiting.add(psiClass)) {
+            for (PsiField field : psiClass.getFields()) {
+                names.add(field.getName());
+            }
+            for (var superClass : psiClass.getSupers()) {
+                names.addAll(getAllFieldNames(superClass, visiting));
+            }
+            visiting.remove(psiClass);
+        }
+
+        var result = Set.copyOf(names);
+        if (qualifiedName != null) {
+            // Computed outside the map, since computing the supers accesses it again
+            fieldNames.put(qualifiedName, result);
+        }
+        return result;
+    }
+}
@@ -1,6 +1,5 @@
 package net.neoforged.jst.parchment;
 
-import com.intellij.lang.jvm.JvmParameter;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
@@ -13,7 +12,10 @@ import com.intellij.psi.PsiReferenceExpression;
 import com.intellij.psi.search.GlobalSearchScope;
 import net.neoforged.jst.api.PsiHelper;
 import net.neoforged.jst.api.Replacements;
+import net.neoforged.jst.api.VerificationLevel;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsDatabase;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsFilter;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -29,16 +31,26 @@ import java.util.function.UnaryOperator;
 
 class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
     private final NamesAndDocsDatabase namesAndDocs;
+    @Nullable
+    private final NamesAndDocsFilter filter;
     private final boolean enableJavadoc;
     @Nullable
     private final UnaryOperator<String> conflictResolver;
     private final Replacements replacements;
+    private final FieldNameCache fieldNameCache;
+    private final JavadocHelper.RenderedJavadocCache javadocCache;
+    private final VerificationLevel verificationLevel;
     /**
      * Renamed parameters of the combined outer scopes we are currently visiting.
      * Since scopes may be nested (classes defined in method bodies and their methods),
      * this may contain the parameters of multiple scopes simultaneously.
      */
     private final Map<PsiParameter, String> activeParameters = new IdentityHashMap<>();
+    /**
+     * The keys of {@link #activeParameters}, indexed by their original name, so that only references using one of
+     * these names have to be resolved.
+     */
+    private final Map<String, List<PsiParameter>> activeParametersByName = new HashMap<>();
     /**
      * The parameter names that have already been used by a method in the outer scope and
      * therefore cannot be used in nested methods.
@@ -46,13 +58,21 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
     private final Set<String> activeNames = new HashSet<>();
 
     public GatherReplacementsVisitor(NamesAndDocsDatabase namesAndDocs,
+                                     @Nullable NamesAndDocsFilter filter,
                                      boolean enableJavadoc,
                                      @Nullable UnaryOperator<String> conflictResolver,
-                                     Replacements replacements) {
+                                     Replacements replacements,
+                                     FieldNameCache fieldNameCache,
+                                     JavadocHelper.RenderedJavadocCache javadocCache,
+                                     VerificationLevel verificationLevel) {
         this.namesAndDocs = namesAndDocs;
+        this.filter = filter;
         this.enableJavadoc = enableJavadoc;
         this.conflictResolver = conflictResolver;
         this.replacements = replacements;
+        this.fieldNameCache = fieldNameCache;
+        this.javadocCache = javadocCache;
+        this.verificationLevel = verificationLevel;
     }
 
     @Override
@@ -60,7 +80,7 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
         if (element instanceof PsiClass psiClass) {
             // This is a sanity check to ensure classes we process are actually findable via the facade and resolve to the same class
             // If they don't, it means either references may be broken or we're loading classes twice.
-            if (psiClass.getQualifiedName() != null) {
+            if (psiClass.getQualifiedName() != null && verificationLevel.shouldVerify(psiClass.getQualifiedName())) {
                 var psiFacade = JavaPsiFacade.getInstance(element.getProject());
                 var foundClass = psiFacade.findClass(psiClass.getQualifiedName(), GlobalSearchScope.everythingScope(element.getProject()));
                 if (foundClass == null) {
@@ -73,37 +93,24 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
             }
 
             // Add javadoc if available
-            var classData = PsiParchmentHelper.getClassData(namesAndDocs, psiClass);
+            var classData = PsiParchmentHelper.getClassData(namesAndDocs, filter, psiClass);
             if (classData != null) {
                 applyJavadoc(psiClass, classData.getJavadoc(), replacements);
             }
         } else if (element instanceof PsiField psiField) {
-            var classData = PsiParchmentHelper.getClassData(namesAndDocs, psiField.getContainingClass());
+            var classData = PsiParchmentHelper.getClassData(namesAndDocs, filter, psiField.getContainingClass());
             var fieldData = classData != null ? classData.getField(psiField.getName()) : null;
             if (fieldData != null) {
                 // Add javadoc if available
                 applyJavadoc(psiField, fieldData.getJavadoc(), replacements);
             }
         } else if (element instanceof PsiMethod psiMethod) {
-            var methodData = PsiParchmentHelper.getMethodData(namesAndDocs, psiMethod);
+            var methodData = PsiParchmentHelper.getMethodData(namesAndDocs, filter, psiMethod);
             if (methodData != null) {
 
                 Map<String, String> parameterJavadoc = new HashMap<>();
                 Map<String, String> renamedParameters = new HashMap<>();
 
-                final UnaryOperator<String> namer;
-                if (conflictResolver == null || psiMethod.getBody() == null) {
-                    namer = UnaryOperator.identity();
-                } else {
-                    final Set<String> localRefs = new HashSet<>();
-                    // Existing parameter names are considered reserved to avoid patched-in parameters to conflict with Parchment names
-                    for (JvmParameter parameter : psiMethod.getParameters()) {
-                        localRefs.add(parameter.getName());
-                    }
-                    new ReservedVariableNamesCollector(localRefs).visitElement(psiMethod.getBody());
-                    namer = p -> localRefs.contains(p) ? conflictResolver.apply(p) : p;
-                }
-
                 List<String> parameterOrder = new ArrayList<>();
 
                 var parameters = psiMethod.getParameterList().getParameters();
@@ -122,6 +129,13 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
                     }
                 }
 
+                final UnaryOperator<String> namer;
+                if (conflictResolver == null || psiMethod.getBody() == null) {
+                    namer = UnaryOperator.identity();
+                } else {
+                    namer = createConflictAwareNamer(psiMethod, methodData, parameters, parametersLvtIndices, parameterOffset, conflictResolver);
+                }
+
                 for (int i = 0; i < parameters.length; i++) {
                     var psiParameter = parameters[i];
                     // We cannot replace parameters with no name, sadly
@@ -155,6 +169,7 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
 
                         // Replace parameters within the method body
                         activeParameters.put(psiParameter, paramName);
+                        activeParametersByName.computeIfAbsent(psiParameter.getName(), k -> new ArrayList<>(1)).add(psiParameter);
                         activeNames.add(paramName);
 
                         // Find and replace the parameter identifier
@@ -187,6 +202,7 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
                             parameterJavadoc,
                             renamedParameters,
                             parameterOrder,
+                            javadocCache,
                             replacements
                     );
                 }
@@ -201,6 +217,11 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
                             var nm = activeParameters.remove(parameter);
                             if (nm != null) {
                                 activeNames.remove(nm);
+                                var sameName = activeParametersByName.get(parameter.getName());
+                                sameName.remove(parameter);
+                                if (sameName.isEmpty()) {
+                                    activeParametersByName.remove(parameter.getName());
+                                }
                             }
                         }
                     }
@@ -208,10 +229,17 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
                 }
             }
         } else if (element instanceof PsiReferenceExpression refExpr && refExpr.getReferenceNameElement() != null) {
-            for (var entry : activeParameters.entrySet()) {
-                if (refExpr.isReferenceTo(entry.getKey())) {
-                    replacements.replace(refExpr.getReferenceNameElement(), entry.getValue());
-                    break;
+            // Parameters are only referenced by their unqualified name, so only matching references need to be resolved
+            var candidates = refExpr.isQualified() ? null : activeParametersByName.get(refExpr.getReferenceName());
+            if (candidates != null) {
+                var target = refExpr.resolve();
+                if (target != null) {
+                    for (var candidate : candidates) {
+                        if (refExpr.getManager().areElementsEquivalent(target, candidate)) {
+                            replacements.replace(refExpr.getReferenceNameElement(), activeParameters.get(candidate));
+                            break;
+                        }
+                    }
                 }
             }
         }
@@ -219,11 +247,49 @@ class GatherReplacementsVisitor extends PsiRecursiveElementVisitor {
         element.acceptChildren(this);
     }
 
+    /**
+     * Creates a namer that applies the conflict resolver to the Parchment names of the method's parameters that
+     * conflict with names reserved in its body.
+     * Only the Parchment names are looked for in the body, which stops being visited once all of them were found.
+     */
+    private UnaryOperator<String> createConflictAwareNamer(PsiMethod psiMethod,
+                                                          NamesAndDocsForMethod methodData,
+                                                          PsiParameter[] parameters,
+                                                          int[] parametersLvtIndices,
+                                                          int parameterOffset,
+                                                          UnaryOperator<String> conflictResolver) {
+        final Set<String> candidates = new HashSet<>();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getNameIdentifier() != null) {
+                var paramData = methodData.getParameter(parameterOffset + i, parametersLvtIndices[i]);
+                if (paramData != null && paramData.getName() != null) {
+                    candidates.add(paramData.getName());
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return UnaryOperator.identity();
+        }
+
+        final Set<String> localRefs = new HashSet<>();
+        // Existing parameter names are considered reserved to avoid patched-in parameters to conflict with Parchment names
+        for (PsiParameter parameter : parameters) {
+            if (candidates.contains(parameter.getName())) {
+                localRefs.add(parameter.getName());
+            }
+        }
+        var collector = new ReservedVariableNamesCollector(localRefs, candidates, fieldNameCache);
+        if (!collector.isComplete()) {
+            collector.visitElement(Objects.requireNonNull(psiMethod.getBody()));
+        }
+        return p -> localRefs.contains(p) ? conflictResolver.apply(p) : p;
+    }
+
     private void applyJavadoc(PsiJavaDocumentedElement psiElement,
                               List<String> javadoc,
                               Replacements replacements) {
         if (enableJavadoc && !javadoc.isEmpty()) {
-            JavadocHelper.enrichJavadoc(psiElement, javadoc, replacements);
+            JavadocHelper.enrichJavadoc(psiElement, javadoc, javadocCache, replacements);
         }
     }
 }
@@ -43,20 +43,43 @@ public final class JavadocHelper {
         return idx != -1 ? idx : Integer.MAX_VALUE;
     });
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private JavadocHelper() {
     }
 
     public static void enrichJavadoc(PsiJavaDocumentedElement psiElement,
                                      List<String> javadoc,
                                      Replacements replacements) {
-        enrichJavadoc(psiElement, javadoc, Map.of(), Map.of(), List.of(), replacements);
+        enrichJavadoc(psiElement, javadoc, Map.of(), Map.of(), List.of(), null, replacements);
+    }
+
+    public static void enrichJavadoc(PsiJavaDocumentedElement psiElement,
+                                     List<String> javadoc,
+                                     @Nullable RenderedJavadocCache cache,
+                                     Replacements replacements) {
+        enrichJavadoc(psiElement, javadoc, Map.of(), Map.of(), List.of(), cache, replacements);
+    }
+
+    public static void enrichJavadoc(PsiJavaDocumentedElement psiElement,
+                                     List<String> javadoc,
+                                     Map<String, String> parameters,
+                                     Map<String, String> renamedParameters,
+                                     List<String> parameterOrder,
+                                     Replacements replacements) {
+        enrichJavadoc(psiElement, javadoc, parameters, renamedParameters, parameterOrder, null, replacements);
     }
 
+    /**
+     * @param cache If not null, javadoc for elements without an existing doc comment is rendered only once for
+     *              each combination of javadoc, parameter docs and indentation.
+     */
     public static void enrichJavadoc(PsiJavaDocumentedElement psiElement,
                                      List<String> javadoc,
                                      Map<String, String> parameters,
                                      Map<String, String> renamedParameters,
                                      List<String> parameterOrder,
+                                     @Nullable RenderedJavadocCache cache,
                                      Replacements replacements) {
 
         var existingDocComment = psiElement.getDocComment();
@@ -71,13 +94,15 @@ public final class JavadocHelper {
             var bodyLines = getMergedJavadocBody(existingDocComment, javadoc);
 
             // Collect tags
-            List<JavadocTag> tags = new ArrayList<>();
+            var existingTags = existingDocComment.getTags();
+            List<JavadocTag> tags = new ArrayList<>(existingTags.length + parameters.size());
             var parameterDocs = new HashMap<String, String>();
-            for (var tag : existingDocComment.getTags()) {
+            var tagTextBuilder = new StringBuilder();
+            for (var tag : existingTags) {
                 var name = tag.getName();
                 if ("param".equalsIgnoreCase(name) && tag.getValueElement() != null) {
                     var paramName = tag.getValueElement().getText().trim();
-                    var paramDocText = assembleTagText(tag.getValueElement().getNextSibling());
+                    var paramDocText = assembleTagText(tag.getValueElement().getNextSibling(), tagTextBuilder);
 
                     // Consider references to renamed parameters
                     paramName = renamedParameters.getOrDefault(paramName, paramName);
@@ -86,7 +111,7 @@ public final class JavadocHelper {
                     continue;
                 }
 
-                var text = assembleTagText(tag.getNameElement().getNextSibling());
+                var text = assembleTagText(tag.getNameElement().getNextSibling(), tagTextBuilder);
                 tags.add(new JavadocTag(tag.getName(), null, text));
             }
 
@@ -110,18 +135,22 @@ public final class JavadocHelper {
             if (psiElement.getPrevSibling() instanceof PsiWhiteSpace psiWhiteSpace) {
                 indent = PsiHelper.getLastLineLength(psiWhiteSpace);
             }
-            replacements.insertBefore(
-                    psiElement,
-                    JavadocHelper.formatJavadoc(indent, javadoc, List.of(), parameters, parameterOrder)
-                            // We have to make an indent part of the replacement since it will now be
-                            // in front of our comment, making the original element unindented
-                            + "\n" + " ".repeat(indent)
-            );
+            var rendered = cache != null
+                    ? cache.getOrRender(javadoc, parameters, parameterOrder, indent)
+                    : renderNewJavadoc(javadoc, parameters, parameterOrder, indent);
+            replacements.insertBefore(psiElement, rendered);
         }
     }
 
-    private static String assembleTagText(PsiElement startingElement) {
-        var paramDocBuilder = new StringBuilder();
+    private static String renderNewJavadoc(List<String> javadoc, Map<String, String> parameters, List<String> parameterOrder, int indent) {
+        return JavadocHelper.formatJavadoc(indent, javadoc, List.of(), parameters, parameterOrder)
+                // We have to make an indent part of the replacement since it will now be
+                // in front of our comment, making the original element unindented
+                + "\n" + " ".repeat(indent);
+    }
+
+    private static String assembleTagText(PsiElement startingElement, StringBuilder paramDocBuilder) {
+        paramDocBuilder.setLength(0);
         for (var child = startingElement; child != null; child = child.getNextSibling()) {
             if (!(child instanceof PsiDocToken docToken) || docToken.getTokenType() != JavaDocTokenType.DOC_COMMENT_LEADING_ASTERISKS) {
                 var lineText = child.getText();
@@ -129,15 +158,15 @@ public final class JavadocHelper {
             }
         }
         // Whitespace collapse and trim
-        Pattern p = Pattern.compile("\\s+");
-        Matcher m = p.matcher(paramDocBuilder);
+        Matcher m = WHITESPACE.matcher(paramDocBuilder);
         return m.replaceAll(" ").trim();
     }
 
     private static List<String> getMergedJavadocBody(PsiDocComment existingDocComment,
                                                      List<String> newLines) {
-        var bodyLines = new ArrayList<String>();
-        for (var el : existingDocComment.getDescriptionElements()) {
+        var descriptionElements = existingDocComment.getDescriptionElements();
+        var bodyLines = new ArrayList<String>(descriptionElements.length + 1 + newLines.size());
+        for (var el : descriptionElements) {
             bodyLines.add(trimJavadocBodyLine(el.getText()));
         }
         removeLeadingAndTrailingEmptyLines(bodyLines);
@@ -149,20 +178,21 @@ public final class JavadocHelper {
     }
 
     private static String trimJavadocBodyLine(String text) {
-        var line = new StringBuilder(text);
+        int start = 0;
+        int end = text.length();
         // Remove a single leading space, since this is the space between the asterisk and actual content
         // I.e.: '/* Text'
-        if (!line.isEmpty() && line.charAt(0) == ' ') {
-            line.deleteCharAt(0);
+        if (start < end && text.charAt(start) == ' ') {
+            start++;
         }
         // Remove trailing newline
-        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\n') {
-            line.deleteCharAt(line.length() - 1);
+        if (start < end && text.charAt(end - 1) == '\n') {
+            end--;
         }
-        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
-            line.deleteCharAt(line.length() - 1);
+        if (start < end && text.charAt(end - 1) == '\r') {
+            end--;
         }
-        return line.toString();
+        return text.substring(start, end);
     }
 
     private static void removeLeadingAndTrailingEmptyLines(List<String> bodyLines) {
@@ -194,22 +224,25 @@ public final class JavadocHelper {
     private static String formatJavadoc(int indent, List<String> descriptionLines, List<JavadocTag> tags, Map<String, String> parameterDocs, List<String> parameterOrder) {
 
         // Defensive copy, we are going to sort/modify them
-        tags = new ArrayList<>(tags);
+        var allTags = new ArrayList<JavadocTag>(tags.size() + parameterDocs.size());
+        allTags.addAll(tags);
+        tags = allTags;
 
         // Order param tags by the order of the method parameters
-        parameterDocs.entrySet().stream()
-                .sorted(Comparator.comparingInt(entry -> {
-                    var idx = parameterOrder.indexOf(entry.getKey());
-                    return idx == -1 ? Integer.MAX_VALUE : idx; // sort unknown params last
-                }))
-                .map(e -> new JavadocTag("param", e.getKey(), e.getValue()))
-                .forEach(tags::add);
+        var paramTagsStart = tags.size();
+        for (var entry : parameterDocs.entrySet()) {
+            tags.add(new JavadocTag("param", entry.getKey(), entry.getValue()));
+        }
+        tags.subList(paramTagsStart, tags.size()).sort(Comparator.comparingInt(tag -> {
+            var idx = parameterOrder.indexOf(tag.refersTo());
+            return idx == -1 ? Integer.MAX_VALUE : idx; // sort unknown params last
+        }));
 
         // Order tags. Sort is stable so pre-ordered param tags stay in order
         tags.sort(Comparator.comparing(JavadocTag::tagName, TAGS_COMPARATOR));
 
         String indentText = " ".repeat(indent);
-        StringBuilder result = new StringBuilder();
+        StringBuilder result = new StringBuilder(estimateLength(indent, descriptionLines, tags));
         result.append("/**\n");
         for (String line : descriptionLines) {
             result.append(indentText).append(" * ").append(line);
@@ -227,6 +260,18 @@ public final class JavadocHelper {
         return result.toString();
     }
 
+    private static int estimateLength(int indent, List<String> descriptionLines, List<JavadocTag> tags) {
+        // Each line is prefixed with the indent and " * ", the tags might need to be wrapped onto more lines
+        var length = 8 + (indent + 4) * (descriptionLines.size() + 2);
+        for (var line : descriptionLines) {
+            length += line.length();
+        }
+        for (var tag : tags) {
+            length += indent + 8 + tag.tagName().length() + tag.text().length() + (tag.refersTo() != null ? tag.refersTo().length() : 0);
+        }
+        return length;
+    }
+
     private static void formatTags(List<JavadocTag> tags, String indentText, StringBuilder result) {
         // Used for breaking overly long lines
         var boundary = BreakIterator.getWordInstance(Locale.ENGLISH);
@@ -303,6 +348,44 @@ public final class JavadocHelper {
         return sb.append('\n');
     }
 
+    /**
+     * A bounded cache of javadoc rendered for elements without an existing doc comment.
+     * <p>
+     * The same mapping javadoc is often applied to many elements, such as overrides of a documented method, which
+     * are usually declared at the same indentation. Entries are keyed by the javadoc, the parameter docs, the order
+     * of the parameters and the indentation, and the least recently used ones are evicted once the cache is full.
+     */
+    public static final class RenderedJavadocCache {
+        private final LruCache<RenderedJavadocKey, String> rendered;
+
+        public RenderedJavadocCache() {
+            this(LruCache.DEFAULT_MAX_SIZE);
+        }
+
+        public RenderedJavadocCache(int maxSize) {
+            this.rendered = new LruCache<>(maxSize);
+        }
+
+        private String getOrRender(List<String> javadoc, Map<String, String> parameters, List<String> parameterOrder, int indent) {
+            var cached = rendered.get(new RenderedJavadocKey(javadoc, parameters, parameterOrder, indent));
+            if (cached != null) {
+                return cached;
+            }
+
+            var result = renderNewJavadoc(javadoc, parameters, parameterOrder, indent);
+            // The parameter docs and order are built per method, so the key must not keep the caller's instances
+            rendered.put(new RenderedJavadocKey(List.copyOf(javadoc), Map.copyOf(parameters), List.copyOf(parameterOrder), indent), result);
+            return result;
+        }
+
+        public int size() {
+            return rendered.size();
+        }
+    }
+
+    private record RenderedJavadocKey(List<String> javadoc, Map<String, String> parameters, List<String> parameterOrder, int indent) {
+    }
+
     /**
      * @param refersTo In case of param or throws, this is the parameter name or exception that the tag refers to.
      */
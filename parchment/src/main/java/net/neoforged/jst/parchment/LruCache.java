@@ -0,0 +1,38 @@
+package net.neoforged.jst.parchment;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe map that evicts its least recently used entries once it holds more than a maximum number of them.
+ */
+final class LruCache<K, V> {
+    static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final Map<K, V> entries;
+
+    LruCache(int maxSize) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @Nullable
+    V get(K key) {
+        return entries.get(key);
+    }
+
+    void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
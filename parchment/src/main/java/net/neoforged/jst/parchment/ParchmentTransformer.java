@@ -1,22 +1,37 @@
 package net.neoforged.jst.parchment;
 
 import com.intellij.psi.PsiFile;
+import net.neoforged.jst.api.FileEntry;
 import net.neoforged.jst.api.Replacements;
 import net.neoforged.jst.api.SourceTransformer;
 import net.neoforged.jst.api.TransformContext;
+import net.neoforged.jst.api.VerificationLevel;
+import net.neoforged.jst.parchment.namesanddocs.MergedNamesAndDocsDatabase;
 import net.neoforged.jst.parchment.namesanddocs.NameAndDocSourceLoader;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsDatabase;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsFilter;
 import picocli.CommandLine;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.UnaryOperator;
 
 public class ParchmentTransformer implements SourceTransformer {
-    @CommandLine.Option(names = "--parchment-mappings", required = true, description = "The location of the Parchment mappings file")
-    public Path mappingsPath;
+    @CommandLine.Option(names = "--parchment-mappings", required = true, description = "The location of a Parchment mappings file. Can be given multiple times, in which case the names and javadocs from later files take precedence. Can also be a .jstidx mapping index compiled with the MappingIndexCompiler entry point of this jar")
+    public List<Path> mappingsPaths = new ArrayList<>();
 
     @CommandLine.Option(
             names = "--parchment-javadoc",
@@ -30,10 +45,37 @@ public class ParchmentTransformer implements SourceTransformer {
     public String conflictPrefix;
 
     private NamesAndDocsDatabase namesAndDocs;
+    private NamesAndDocsFilter filter;
     private UnaryOperator<String> conflictResolver;
+    private volatile String cacheFingerprint;
+    private VerificationLevel verificationLevel = VerificationLevel.FULL;
+    // Caches shared by all files, since local classes commonly extend the same classes and the same javadoc
+    // is often applied to overrides in different files
+    private final FieldNameCache fieldNameCache = new FieldNameCache();
+    private final JavadocHelper.RenderedJavadocCache javadocCache = new JavadocHelper.RenderedJavadocCache();
+
+    @Override
+    public CompletableFuture<?> prepareAsync(Executor executor) {
+        var loads = new ArrayList<CompletableFuture<NamesAndDocsDatabase>>(mappingsPaths.size());
+        for (var mappingsPath : mappingsPaths) {
+            loads.add(CompletableFuture.supplyAsync(() -> {
+                System.out.println("Loading mapping file " + mappingsPath);
+                try {
+                    return NameAndDocSourceLoader.load(mappingsPath);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            namesAndDocs = MergedNamesAndDocsDatabase.of(loads.stream().map(CompletableFuture::join).toList());
+            filter = NamesAndDocsFilter.build(namesAndDocs);
+        });
+    }
 
     @Override
     public void beforeRun(TransformContext context) {
+        verificationLevel = context.verificationLevel();
         if (conflictPrefix != null) {
             if (conflictPrefix.isBlank()) {
                 throw new IllegalArgumentException("Parchment conflict prefix cannot be blank");
@@ -45,21 +87,65 @@ public class ParchmentTransformer implements SourceTransformer {
                 conflictResolver = p -> conflictPrefix + p;
             }
         }
+    }
 
-        System.out.println("Loading mapping file " + mappingsPath);
-        try {
-            namesAndDocs = NameAndDocSourceLoader.load(mappingsPath);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    @Override
+    public Collection<String> getAffectedClasses() {
+        return namesAndDocs.getClassNames();
+    }
+
+    @Override
+    public String getCacheFingerprint(FileEntry fileEntry) {
+        // The mappings are only hashed once an incremental cache asks for the fingerprint
+        var fingerprint = cacheFingerprint;
+        if (fingerprint == null) {
+            synchronized (this) {
+                fingerprint = cacheFingerprint;
+                if (fingerprint == null) {
+                    cacheFingerprint = fingerprint = computeCacheFingerprint();
+                }
+            }
         }
+        return fingerprint;
+    }
+
+    private String computeCacheFingerprint() {
+        var fingerprint = new StringBuilder();
+        for (var mappingsPath : mappingsPaths) {
+            try {
+                fingerprint.append(hashFile(mappingsPath)).append(' ');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return fingerprint.append(enableJavadoc).append(' ').append(conflictPrefix).toString();
+    }
+
+    @Override
+    public boolean afterRun(TransformContext context) {
+        context.logger().debug("Parchment class lookups: %s", filter.getClassCounters());
+        context.logger().debug("Parchment method lookups: %s", filter.getMethodCounters());
+        return true;
     }
 
     @Override
     public void visitFile(PsiFile psiFile, Replacements replacements) {
-        var visitor = new GatherReplacementsVisitor(namesAndDocs, enableJavadoc, conflictResolver, replacements);
+        var visitor = new GatherReplacementsVisitor(namesAndDocs, filter, enableJavadoc, conflictResolver, replacements, fieldNameCache, javadocCache, verificationLevel);
         visitor.visitElement(psiFile);
     }
 
+    private static String hashFile(Path path) throws IOException {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            try (var in = new DigestInputStream(Files.newInputStream(path), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private static String capitalize(String str) {
         if (str.length() == 1) {
             return str.toUpperCase(Locale.ROOT);
@@ -2,27 +2,32 @@ package net.neoforged.jst.parchment;
 
 import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiMethod;
 import net.neoforged.jst.api.PsiHelper;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsDatabase;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsFilter;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForClass;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 
 public class PsiParchmentHelper {
     // Keys for attaching mapping data to a PsiClass. Used to prevent multiple lookups for the same class/method.
     private static final Key<Optional<NamesAndDocsForClass>> CLASS_DATA_KEY = Key.create("names_and_docs_for_class");
     private static final Key<Optional<NamesAndDocsForMethod>> METHOD_DATA_KEY = Key.create("names_and_docs_for_method");
-    private static final Key<Set<String>> ALL_FIELD_NAMES = Key.create("all_field_names");
 
-    @SuppressWarnings("OptionalAssignedToNull")
     @Nullable
     public static NamesAndDocsForClass getClassData(NamesAndDocsDatabase namesAndDocs, @Nullable PsiClass psiClass) {
+        return getClassData(namesAndDocs, null, psiClass);
+    }
+
+    /**
+     * @param filter If not null, rules out classes without data before their binary name is built.
+     */
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Nullable
+    public static NamesAndDocsForClass getClassData(NamesAndDocsDatabase namesAndDocs, @Nullable NamesAndDocsFilter filter, @Nullable PsiClass psiClass) {
         if (psiClass == null) {
             return null;
         }
@@ -30,21 +35,37 @@ public class PsiParchmentHelper {
         if (classData != null) {
             return classData.orElse(null);
         } else {
-            var sb = new StringBuilder();
-            PsiHelper.getBinaryClassName(psiClass, sb);
-            if (sb.isEmpty()) {
+            if (filter != null && !filter.mightContainClass(psiClass.getName())) {
                 classData = Optional.empty();
             } else {
-                classData = Optional.ofNullable(namesAndDocs.getClass(sb.toString()));
+                var sb = new StringBuilder();
+                PsiHelper.getBinaryClassName(psiClass, sb);
+                if (sb.isEmpty()) {
+                    classData = Optional.empty();
+                } else {
+                    classData = Optional.ofNullable(namesAndDocs.getClass(sb.toString()));
+                    if (filter != null && classData.isEmpty()) {
+                        filter.getClassCounters().recordFalsePositive();
+                    }
+                }
             }
             psiClass.putUserData(CLASS_DATA_KEY, classData);
             return classData.orElse(null);
         }
     }
 
-    @SuppressWarnings("OptionalAssignedToNull")
     @Nullable
     public static NamesAndDocsForMethod getMethodData(NamesAndDocsDatabase namesAndDocs, @Nullable PsiMethod psiMethod) {
+        return getMethodData(namesAndDocs, null, psiMethod);
+    }
+
+    /**
+     * @param filter If not null, rules out methods without data before their class is looked up and their
+     *               descriptor is built.
+     */
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Nullable
+    public static NamesAndDocsForMethod getMethodData(NamesAndDocsDatabase namesAndDocs, @Nullable NamesAndDocsFilter filter, @Nullable PsiMethod psiMethod) {
         if (psiMethod == null) {
             return null;
         }
@@ -53,12 +74,21 @@ public class PsiParchmentHelper {
             return methodData.orElse(null);
         } else {
             methodData = Optional.empty();
-            var classData = getClassData(namesAndDocs, psiMethod.getContainingClass());
-            if (classData != null) {
-                var methodName = PsiHelper.getBinaryMethodName(psiMethod);
-                var signatures = PsiHelper.getOverloadedSignatures(psiMethod);
-                while (signatures.hasNext() && methodData.isEmpty()) {
-                    methodData = Optional.ofNullable(classData.getMethod(methodName, signatures.next()));
+            var containingClass = psiMethod.getContainingClass();
+            var methodName = PsiHelper.getBinaryMethodName(psiMethod);
+            if (containingClass != null && (filter == null || filter.mightContainMethod(containingClass.getName(), methodName))) {
+                var classData = getClassData(namesAndDocs, filter, containingClass);
+                if (classData != null) {
+                    // Mappings for methods with fewer parameters also apply, preferring the one with the most parameters
+                    methodData = Optional.ofNullable(classData.getMethodByParameterPrefix(
+                            methodName,
+                            PsiHelper.getParameterDescriptors(psiMethod),
+                            PsiHelper.getReturnTypeDescriptor(psiMethod)
+                    ));
+                    // Lookups that never reached the methods of the class are attributed to the class lookup
+                    if (filter != null && methodData.isEmpty()) {
+                        filter.getMethodCounters().recordFalsePositive();
+                    }
                 }
             }
 
@@ -66,18 +96,4 @@ public class PsiParchmentHelper {
             return methodData.orElse(null);
         }
     }
-
-    public static Set<String> getAllFieldNames(PsiClass clazz) {
-        var existing = clazz.getUserData(ALL_FIELD_NAMES);
-        if (existing != null) {
-            return existing;
-        }
-
-        existing = new HashSet<>();
-        for (PsiField field : clazz.getAllFields()) {
-            existing.add(field.getName());
-        }
-        clazz.putUserData(ALL_FIELD_NAMES, existing);
-        return existing;
-    }
 }
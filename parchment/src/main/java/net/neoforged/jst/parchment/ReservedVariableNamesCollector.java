@@ -9,6 +9,7 @@ import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiRecursiveElementVisitor;
 import com.intellij.psi.PsiReferenceExpression;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
@@ -21,17 +22,36 @@ import java.util.Set;
  *     <li>the identifier of a member used in an unqualified reference expression (e.g. <code>someField = "abc"</code>)</li>
  *     <li>the names of the fields an anonymous class or method-local class has</li>
  * </ul>
+ * If only some names are of interest, the collector can be limited to candidate names, in which case it stops
+ * visiting elements once all of them were found.
  */
 public class ReservedVariableNamesCollector extends PsiRecursiveElementVisitor {
     public final Set<String> names;
+    @Nullable
+    private final Set<String> candidates;
+    private final FieldNameCache fieldNameCache;
+
     public ReservedVariableNamesCollector(Set<String> names) {
+        this(names, null, new FieldNameCache());
+    }
+
+    /**
+     * @param candidates If not null, only these names are collected.
+     */
+    public ReservedVariableNamesCollector(Set<String> names, @Nullable Set<String> candidates, FieldNameCache fieldNameCache) {
         this.names = names;
+        this.candidates = candidates;
+        this.fieldNameCache = fieldNameCache;
     }
 
     @Override
     public void visitElement(@NotNull PsiElement element) {
+        if (isComplete()) {
+            return;
+        }
+
         if (element instanceof PsiParameter parameter) {
-            names.add(parameter.getName());
+            addName(parameter.getName());
         } else if (element instanceof PsiReferenceExpression reference && !(element instanceof PsiMethodReferenceExpression)) {
             boolean qualified = false;
             // Unqualified references are to be considered local variables
@@ -43,17 +63,39 @@ public class ReservedVariableNamesCollector extends PsiRecursiveElementVisitor {
             }
 
             if (!qualified) {
-                names.add(reference.getLastChild().getText());
+                addName(reference.getLastChild().getText());
             }
         } else if (element instanceof PsiLocalVariable variable) {
-            names.add(variable.getName());
+            addName(variable.getName());
         } else if (element instanceof PsiClass cls) {
             // To catch cases where inherited protected fields of local classes take precedence over the parameters
             // when we encounter a class local to a method we will consider all its field names reserved
-            names.addAll(PsiParchmentHelper.getAllFieldNames(cls));
+            var fieldNames = fieldNameCache.getAllFieldNames(cls);
+            if (candidates == null) {
+                names.addAll(fieldNames);
+            } else {
+                for (var candidate : candidates) {
+                    if (fieldNames.contains(candidate)) {
+                        names.add(candidate);
+                    }
+                }
+            }
             return; // But we don't need to process further as references in the methods declared in the local class are out of scope for this check
         }
 
         element.acceptChildren(this);
     }
+
+    private void addName(String name) {
+        if (candidates == null || candidates.contains(name)) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * @return Whether all candidate names were found, so that no further names can be collected.
+     */
+    public boolean isComplete() {
+        return candidates != null && names.containsAll(candidates);
+    }
 }
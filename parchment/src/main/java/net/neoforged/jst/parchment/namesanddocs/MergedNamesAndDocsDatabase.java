@@ -0,0 +1,316 @@
+package net.neoforged.jst.parchment.namesanddocs;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combines several databases, where data from a database with higher precedence replaces the data of the others.
+ * <p>
+ * Precedence applies to each element separately: An element takes its javadoc from the first database that has
+ * javadoc for it, and a parameter takes its name and javadoc from the first database that has them, so that
+ * for example a mapping file which only renames parameters keeps the javadoc of a Parchment export.
+ * <p>
+ * The data of classes found in several databases is merged once when the databases are merged, so looking it up
+ * does not go through the individual databases.
+ */
+public final class MergedNamesAndDocsDatabase implements NamesAndDocsDatabase {
+    private final List<NamesAndDocsDatabase> databases;
+    private final Map<String, NamesAndDocsForClass> classes;
+
+    private MergedNamesAndDocsDatabase(List<NamesAndDocsDatabase> databases, Map<String, NamesAndDocsForClass> classes) {
+        this.databases = databases;
+        this.classes = classes;
+    }
+
+    /**
+     * @param databases the databases to merge, in increasing order of precedence
+     */
+    public static NamesAndDocsDatabase of(List<NamesAndDocsDatabase> databases) {
+        if (databases.size() == 1) {
+            return databases.get(0);
+        }
+
+        var sourcesByClass = new HashMap<String, List<NamesAndDocsForClass>>();
+        for (int i = databases.size() - 1; i >= 0; i--) {
+            var database = databases.get(i);
+            for (var className : database.getClassNames()) {
+                sourcesByClass.computeIfAbsent(className, k -> new ArrayList<>(1)).add(database.getClass(className));
+            }
+        }
+
+        var classes = new HashMap<String, NamesAndDocsForClass>(sourcesByClass.size());
+        for (var entry : sourcesByClass.entrySet()) {
+            var sources = entry.getValue();
+            classes.put(entry.getKey(), sources.size() == 1 ? sources.get(0) : MergedClass.merge(sources));
+        }
+        return new MergedNamesAndDocsDatabase(List.copyOf(databases), classes);
+    }
+
+    @Override
+    public Collection<String> getClassNames() {
+        return classes.keySet();
+    }
+
+    @Override
+    public @Nullable NamesAndDocsForClass getClass(String className) {
+        return classes.get(className);
+    }
+
+    /**
+     * Combines the keys of the merged databases, since a filter containing a key twice is the same as containing
+     * it once.
+     */
+    @Override
+    public int[] getFilterKeys() {
+        var keys = new int[0];
+        for (var database : databases) {
+            var databaseKeys = database.getFilterKeys();
+            var offset = keys.length;
+            keys = Arrays.copyOf(keys, offset + databaseKeys.length);
+            System.arraycopy(databaseKeys, 0, keys, offset, databaseKeys.length);
+        }
+        return keys;
+    }
+
+    private static List<String> firstJavadoc(List<String> current, List<String> next) {
+        return current.isEmpty() ? next : current;
+    }
+
+    /**
+     * @return The number of entries of {@code parameterTypes} that {@code descriptor} consists of, or 0 if it is not
+     * made of a non-empty prefix of them and the return type.
+     */
+    private static int matchParameterPrefix(String descriptor, List<String> parameterTypes, String returnType) {
+        if (!descriptor.startsWith("(")) {
+            return 0;
+        }
+        var position = 1;
+        var count = 0;
+        while (count < parameterTypes.size() && position < descriptor.length() && descriptor.charAt(position) != ')') {
+            var parameterType = parameterTypes.get(count);
+            if (!descriptor.startsWith(parameterType, position)) {
+                return 0;
+            }
+            position += parameterType.length();
+            count++;
+        }
+        if (count == 0 || position == descriptor.length() || descriptor.charAt(position) != ')') {
+            return 0;
+        }
+        position++;
+        return descriptor.length() - position == returnType.length() && descriptor.startsWith(returnType, position) ? count : 0;
+    }
+
+    private record MergedClass(List<String> javadoc,
+                               Map<String, NamesAndDocsForField> fields,
+                               Map<String, Overloads> methods) implements NamesAndDocsForClass {
+        /**
+         * @param sources in decreasing order of precedence
+         */
+        static MergedClass merge(List<NamesAndDocsForClass> sources) {
+            var javadoc = List.<String>of();
+            var fields = new HashMap<String, NamesAndDocsForField>();
+            var methodSources = new HashMap<String, Map<String, List<NamesAndDocsForMethod>>>();
+            for (var source : sources) {
+                javadoc = firstJavadoc(javadoc, source.getJavadoc());
+                for (var fieldName : source.getFieldNames()) {
+                    // A field only consists of its javadoc
+                    fields.merge(fieldName, source.getField(fieldName), (current, next) -> current.getJavadoc().isEmpty() ? next : current);
+                }
+                for (var methodName : source.getMethodNames()) {
+                    var overloads = methodSources.computeIfAbsent(methodName, k -> new LinkedHashMap<>());
+                    for (var signature : source.getMethodSignatures(methodName)) {
+                        overloads.computeIfAbsent(signature, k -> new ArrayList<>(1)).add(source.getMethod(methodName, signature));
+                    }
+                }
+            }
+
+            var methods = new HashMap<String, Overloads>(methodSources.size());
+            for (var entry : methodSources.entrySet()) {
+                var overloads = entry.getValue();
+                var signatures = new String[overloads.size()];
+                var overloadMethods = new NamesAndDocsForMethod[overloads.size()];
+                var i = 0;
+                for (var overload : overloads.entrySet()) {
+                    var methodSourceList = overload.getValue();
+                    signatures[i] = overload.getKey();
+                    overloadMethods[i++] = methodSourceList.size() == 1 ? methodSourceList.get(0) : MergedMethod.merge(methodSourceList);
+                }
+                methods.put(entry.getKey(), new Overloads(signatures, overloadMethods));
+            }
+            return new MergedClass(javadoc, fields, methods);
+        }
+
+        @Override
+        public List<String> getJavadoc() {
+            return javadoc;
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForField getField(String name) {
+            return fields.get(name);
+        }
+
+        @Override
+        public Collection<String> getFieldNames() {
+            return fields.keySet();
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForMethod getMethod(String name, String methodSignature) {
+            var overloads = methods.get(name);
+            if (overloads == null) {
+                return null;
+            }
+            for (int i = 0; i < overloads.signatures.length; i++) {
+                if (overloads.signatures[i].equals(methodSignature)) {
+                    return overloads.methods[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Matches the descriptors of all overloads against the parameter types, so the longest match wins regardless
+         * of the database it came from. Its data is merged like that of any other method.
+         */
+        @Override
+        public @Nullable ParameterPrefixMatch findMethodByParameterPrefix(String name, List<String> parameterTypes, String returnType) {
+            var overloads = methods.get(name);
+            if (overloads == null) {
+                return null;
+            }
+            var best = -1;
+            var bestCount = 0;
+            for (int i = 0; i < overloads.signatures.length; i++) {
+                var count = matchParameterPrefix(overloads.signatures[i], parameterTypes, returnType);
+                if (count > bestCount) {
+                    best = i;
+                    bestCount = count;
+                }
+            }
+            return best != -1 ? new ParameterPrefixMatch(overloads.methods[best], bestCount) : null;
+        }
+
+        @Override
+        public Collection<String> getMethodNames() {
+            return methods.keySet();
+        }
+
+        @Override
+        public Collection<String> getMethodSignatures(String name) {
+            var overloads = methods.get(name);
+            return overloads != null ? List.of(overloads.signatures) : List.of();
+        }
+    }
+
+    /**
+     * The merged methods of a class with the same name.
+     */
+    private record Overloads(String[] signatures, NamesAndDocsForMethod[] methods) {
+    }
+
+    /**
+     * Parameters are identified by their position in the parameter list in some databases, and by their JVM index in
+     * others. Both can only be related once a parameter is looked up, so the parameters of each kind are merged
+     * separately, and only combined on lookup if a parameter has data of both kinds.
+     */
+    private record MergedMethod(List<String> javadoc,
+                                Map<Integer, MergedParameter> parametersByIndex,
+                                Map<Integer, MergedParameter> parametersByJvmIndex) implements NamesAndDocsForMethod {
+        /**
+         * @param sources in decreasing order of precedence
+         */
+        static MergedMethod merge(List<NamesAndDocsForMethod> sources) {
+            var javadoc = List.<String>of();
+            var parametersByIndex = new HashMap<Integer, MergedParameter>();
+            var parametersByJvmIndex = new HashMap<Integer, MergedParameter>();
+            for (int precedence = 0; precedence < sources.size(); precedence++) {
+                var source = sources.get(precedence);
+                javadoc = firstJavadoc(javadoc, source.getJavadoc());
+                mergeParameters(parametersByIndex, source.getParametersByIndex(), precedence);
+                mergeParameters(parametersByJvmIndex, source.getParametersByJvmIndex(), precedence);
+            }
+            return new MergedMethod(javadoc, parametersByIndex, parametersByJvmIndex);
+        }
+
+        private static void mergeParameters(Map<Integer, MergedParameter> merged, Map<Integer, ? extends NamesAndDocsForParameter> parameters, int precedence) {
+            for (var entry : parameters.entrySet()) {
+                var next = MergedParameter.of(entry.getValue(), precedence);
+                merged.merge(entry.getKey(), next, MergedParameter::fillIn);
+            }
+        }
+
+        @Override
+        public List<String> getJavadoc() {
+            return javadoc;
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForParameter getParameter(int index, int jvmIndex) {
+            var byIndex = parametersByIndex.get(index);
+            var byJvmIndex = parametersByJvmIndex.get(jvmIndex);
+            if (byIndex == null) {
+                return byJvmIndex;
+            } else if (byJvmIndex == null) {
+                return byIndex;
+            }
+            return byIndex.fillIn(byJvmIndex);
+        }
+
+        @Override
+        public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByIndex() {
+            return parametersByIndex;
+        }
+
+        @Override
+        public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByJvmIndex() {
+            return parametersByJvmIndex;
+        }
+    }
+
+    /**
+     * @param namePrecedence    the precedence of the database the name came from, lower is higher precedence
+     * @param javadocPrecedence the precedence of the database the javadoc came from
+     */
+    private record MergedParameter(@Nullable String name, int namePrecedence,
+                                   @Nullable String javadoc, int javadocPrecedence) implements NamesAndDocsForParameter {
+        static MergedParameter of(NamesAndDocsForParameter parameter, int precedence) {
+            return new MergedParameter(parameter.getName(), precedence, parameter.getJavadoc(), precedence);
+        }
+
+        /**
+         * @return This parameter with the name and javadoc of {@code other} where those have a higher precedence.
+         */
+        MergedParameter fillIn(MergedParameter other) {
+            var takeName = name == null || other.name != null && other.namePrecedence < namePrecedence;
+            var takeJavadoc = javadoc == null || other.javadoc != null && other.javadocPrecedence < javadocPrecedence;
+            if (!takeName && !takeJavadoc) {
+                return this;
+            } else if (takeName && takeJavadoc) {
+                return other;
+            }
+            return new MergedParameter(
+                    takeName ? other.name : name, takeName ? other.namePrecedence : namePrecedence,
+                    takeJavadoc ? other.javadoc : javadoc, takeJavadoc ? other.javadocPrecedence : javadocPrecedence
+            );
+        }
+
+        @Override
+        public @Nullable String getName() {
+            return name;
+        }
+
+        @Override
+        public @Nullable String getJavadoc() {
+            return javadoc;
+        }
+    }
+}
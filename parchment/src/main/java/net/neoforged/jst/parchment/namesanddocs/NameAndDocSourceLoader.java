@@ -1,5 +1,6 @@
 package net.neoforged.jst.parchment.namesanddocs;
 
+import net.neoforged.jst.parchment.namesanddocs.index.MappingIndex;
 import net.neoforged.jst.parchment.namesanddocs.srgutils.MappingFileDatabase;
 import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
 import net.neoforged.srgutils.INamedMappingFile;
@@ -25,6 +26,7 @@ public final class NameAndDocSourceLoader {
             case PARCHMENT_ZIP -> ParchmentDatabase.loadZip(path);
             case PARCHMENT_JSON -> ParchmentDatabase.loadJson(path);
             case TSRG2 -> MappingFileDatabase.load(path);
+            case JST_INDEX -> MappingIndex.load(path);
         };
     }
 
@@ -36,6 +38,8 @@ public final class NameAndDocSourceLoader {
             return NameAndDocsFormat.PARCHMENT_JSON;
         } else if (filename.endsWith(".tsrg")) {
             return NameAndDocsFormat.TSRG2;
+        } else if (filename.endsWith(".jstidx")) {
+            return NameAndDocsFormat.JST_INDEX;
         }
         throw new IllegalArgumentException("Don't know how to load " + path);
     }
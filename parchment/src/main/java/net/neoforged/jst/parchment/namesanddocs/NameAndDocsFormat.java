@@ -4,4 +4,8 @@ public enum NameAndDocsFormat {
     PARCHMENT_ZIP,
     PARCHMENT_JSON,
     TSRG2,
+    /**
+     * A mapping index compiled by {@link net.neoforged.jst.parchment.namesanddocs.index.MappingIndexCompiler}.
+     */
+    JST_INDEX,
 }
@@ -1,5 +1,20 @@
 package net.neoforged.jst.parchment.namesanddocs;
 
+import java.util.Collection;
+
 public interface NamesAndDocsDatabase {
+    /**
+     * @return The binary names of all classes with data, using {@code /} as the package separator.
+     */
+    Collection<String> getClassNames();
+
     NamesAndDocsForClass getClass(String className);
+
+    /**
+     * @return The keys of all classes and methods with data, as added to a {@link NamesAndDocsFilter}.
+     * Databases that decode their data on demand should override this to avoid decoding all of it.
+     */
+    default int[] getFilterKeys() {
+        return NamesAndDocsFilter.computeKeys(this);
+    }
 }
@@ -0,0 +1,193 @@
+package net.neoforged.jst.parchment.namesanddocs;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter over the classes and methods of a {@link NamesAndDocsDatabase}, which rules out lookups of
+ * elements without data before their binary names and descriptors are built.
+ * <p>
+ * Classes are keyed by their simple name, and methods by their name and the simple name of their class, since both
+ * are available from the PSI without building any strings. The filter never rejects elements that have data, but
+ * lets through about one percent of the elements that don't, which the regular lookup then doesn't find.
+ */
+public final class NamesAndDocsFilter {
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final long[] bits;
+    private final int bitCount;
+    private final Counters classCounters = new Counters();
+    private final Counters methodCounters = new Counters();
+
+    private NamesAndDocsFilter(int expectedEntries) {
+        var bitCount = Math.max(64, (long) expectedEntries * BITS_PER_ENTRY);
+        this.bits = new long[(int) Math.min((bitCount + 63) / 64, Integer.MAX_VALUE / 64)];
+        this.bitCount = bits.length * 64;
+    }
+
+    public static NamesAndDocsFilter build(NamesAndDocsDatabase database) {
+        var keys = database.getFilterKeys();
+        var filter = new NamesAndDocsFilter(keys.length);
+        for (var key : keys) {
+            filter.add(key);
+        }
+        return filter;
+    }
+
+    /**
+     * Computes the keys of all classes and methods of {@code database} by walking all of its classes.
+     *
+     * @see NamesAndDocsDatabase#getFilterKeys()
+     */
+    public static int[] computeKeys(NamesAndDocsDatabase database) {
+        var classNames = database.getClassNames();
+        var entries = classNames.size();
+        for (var className : classNames) {
+            entries += database.getClass(className).getMethodNames().size();
+        }
+
+        var keys = new int[entries];
+        var count = 0;
+        for (var className : classNames) {
+            var classKey = classKey(className);
+            keys[count++] = classKey;
+            for (var methodName : database.getClass(className).getMethodNames()) {
+                keys[count++] = methodKey(classKey, methodName);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @param className The binary name of the class.
+     * @return The key under which a class is added to the filter.
+     */
+    public static int classKey(String className) {
+        return hashSimpleName(className);
+    }
+
+    /**
+     * @param classKey   The {@linkplain #classKey key} of the class declaring the method.
+     * @param methodName The binary name of the method.
+     * @return The key under which a method is added to the filter.
+     */
+    public static int methodKey(int classKey, String methodName) {
+        return 31 * classKey + methodName.hashCode();
+    }
+
+    /**
+     * @param simpleName The simple name of the class, or {@code null} for anonymous classes.
+     * @return {@code false} if the database definitely has no data for the class.
+     */
+    public boolean mightContainClass(@Nullable String simpleName) {
+        return classCounters.record(mightContain(hashSimpleName(simpleName)));
+    }
+
+    /**
+     * @param classSimpleName The simple name of the class declaring the method, or {@code null} for anonymous classes.
+     * @param methodName      The binary name of the method, i.e. {@code <init>} for constructors.
+     * @return {@code false} if the database definitely has no data for the method.
+     */
+    public boolean mightContainMethod(@Nullable String classSimpleName, String methodName) {
+        return methodCounters.record(mightContain(methodKey(hashSimpleName(classSimpleName), methodName)));
+    }
+
+    public Counters getClassCounters() {
+        return classCounters;
+    }
+
+    public Counters getMethodCounters() {
+        return methodCounters;
+    }
+
+    private void add(int hash) {
+        var h1 = mix(hash);
+        var h2 = mix(h1 ^ 0x5bd1e995) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            var bit = Integer.remainderUnsigned(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(int hash) {
+        var h1 = mix(hash);
+        var h2 = mix(h1 ^ 0x5bd1e995) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            var bit = Integer.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the simple name of a class the same way for binary names from the database and names from the PSI:
+     * Everything up to the last {@code /} or {@code $} is dropped, as well as the digits that the binary names of
+     * local and anonymous classes start with. Equivalent to {@link String#hashCode()} of the remaining name.
+     */
+    private static int hashSimpleName(@Nullable String name) {
+        if (name == null) {
+            return 0;
+        }
+        var start = Math.max(name.lastIndexOf('/'), name.lastIndexOf('$')) + 1;
+        while (start < name.length() && Character.isDigit(name.charAt(start))) {
+            start++;
+        }
+        var hash = 0;
+        for (int i = start; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * The finalization step of MurmurHash3, to spread the bits of {@link String#hashCode()}.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Counts how often the filter let lookups through (hits) or ruled them out (misses).
+     * Lookups that were let through without finding data are false positives of the filter.
+     */
+    public static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        private boolean record(boolean hit) {
+            (hit ? hits : misses).increment();
+            return hit;
+        }
+
+        public void recordFalsePositive() {
+            falsePositives.increment();
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getFalsePositives() {
+            return falsePositives.sum();
+        }
+
+        @Override
+        public String toString() {
+            return getHits() + " hits (" + getFalsePositives() + " false positives), " + getMisses() + " misses";
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package net.neoforged.jst.parchment.namesanddocs;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface NamesAndDocsForClass {
@@ -7,5 +10,66 @@ public interface NamesAndDocsForClass {
 
     NamesAndDocsForField getField(String name);
 
+    /**
+     * @return The names of all fields with data.
+     */
+    Collection<String> getFieldNames();
+
     NamesAndDocsForMethod getMethod(String name, String methodSignature);
+
+    /**
+     * @return The names of all methods with data, including overloads only once.
+     */
+    Collection<String> getMethodNames();
+
+    /**
+     * @return The descriptors of all methods with the given name that have data.
+     */
+    Collection<String> getMethodSignatures(String name);
+
+    /**
+     * Finds the method with the given return type whose parameter types are the longest non-empty prefix of
+     * {@code parameterTypes}. This also matches methods that have fewer parameters in the mappings than in the source.
+     *
+     * @param parameterTypes the descriptors of the parameter types, one per parameter, except for parameters that
+     *                       are only matched together, which share an entry
+     * @param returnType     the descriptor of the return type
+     */
+    @Nullable
+    default NamesAndDocsForMethod getMethodByParameterPrefix(String name, List<String> parameterTypes, String returnType) {
+        var match = findMethodByParameterPrefix(name, parameterTypes, returnType);
+        return match != null ? match.method() : null;
+    }
+
+    /**
+     * Like {@link #getMethodByParameterPrefix}, but also returns how many entries of {@code parameterTypes} the
+     * method was matched by.
+     */
+    @Nullable
+    default ParameterPrefixMatch findMethodByParameterPrefix(String name, List<String> parameterTypes, String returnType) {
+        for (int count = parameterTypes.size(); count > 0; count--) {
+            var method = getMethod(name, getSignature(parameterTypes, count, returnType));
+            if (method != null) {
+                return new ParameterPrefixMatch(method, count);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The descriptor of a method with the first {@code count} entries of {@code parameterTypes}.
+     */
+    static String getSignature(List<String> parameterTypes, int count, String returnType) {
+        var signature = new StringBuilder("(");
+        for (int i = 0; i < count; i++) {
+            signature.append(parameterTypes.get(i));
+        }
+        return signature.append(')').append(returnType).toString();
+    }
+
+    /**
+     * @param parameterCount The number of entries of the parameter types the method was matched by.
+     */
+    record ParameterPrefixMatch(NamesAndDocsForMethod method, int parameterCount) {
+    }
 }
@@ -1,9 +1,20 @@
 package net.neoforged.jst.parchment.namesanddocs;
 
 import java.util.List;
+import java.util.Map;
 
 public interface NamesAndDocsForMethod {
     List<String> getJavadoc();
 
     NamesAndDocsForParameter getParameter(int index, int jvmIndex);
+
+    /**
+     * @return The parameters with data that are identified by their position in the parameter list, by that position.
+     */
+    Map<Integer, ? extends NamesAndDocsForParameter> getParametersByIndex();
+
+    /**
+     * @return The parameters with data that are identified by their JVM local variable index, by that index.
+     */
+    Map<Integer, ? extends NamesAndDocsForParameter> getParametersByJvmIndex();
 }
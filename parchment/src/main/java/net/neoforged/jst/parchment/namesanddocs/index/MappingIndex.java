@@ -0,0 +1,402 @@
+package net.neoforged.jst.parchment.namesanddocs.index;
+
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsDatabase;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForClass;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForField;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForParameter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.CLASS_TABLE_ENTRY_SIZE;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.FIELD_ENTRY_SIZE;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.FLAG_PARAMETERS_BY_SOURCE_INDEX;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.HEADER_SIZE;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.MAGIC;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.METHOD_ENTRY_SIZE;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.NO_STRING;
+import static net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter.VERSION;
+
+/**
+ * Reads names and docs from a compiled mapping index written by {@link MappingIndexWriter}.
+ * <p>
+ * The index is memory-mapped, and records are only decoded when they are looked up, so loading it is
+ * independent of the size of the mappings. Classes, fields and methods are found by binary search.
+ */
+public final class MappingIndex implements NamesAndDocsDatabase {
+    private final ByteBuffer buffer;
+    private final boolean parametersBySourceIndex;
+    private final int classCount;
+    private final int filterKeysOffset;
+
+    private MappingIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a JST mapping index");
+        }
+        var version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported JST mapping index version " + version + ", expected " + VERSION);
+        }
+        this.parametersBySourceIndex = (buffer.getInt(8) & FLAG_PARAMETERS_BY_SOURCE_INDEX) != 0;
+        this.classCount = buffer.getInt(12);
+        this.filterKeysOffset = buffer.getInt(16);
+    }
+
+    public static MappingIndex load(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Mapping index " + path + " is too large");
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappingIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public Collection<String> getClassNames() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return readString(buffer.getInt(HEADER_SIZE + index * CLASS_TABLE_ENTRY_SIZE));
+            }
+
+            @Override
+            public int size() {
+                return classCount;
+            }
+        };
+    }
+
+    @Override
+    public @Nullable NamesAndDocsForClass getClass(String className) {
+        var name = className.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = classCount - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = HEADER_SIZE + middle * CLASS_TABLE_ENTRY_SIZE;
+            var comparison = compareString(buffer.getInt(entry), name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return new IndexedClass(buffer.getInt(entry + 4));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int[] getFilterKeys() {
+        var keys = new int[buffer.getInt(filterKeysOffset)];
+        buffer.slice(filterKeysOffset + 4, keys.length * 4).asIntBuffer().get(keys);
+        return keys;
+    }
+
+    /**
+     * Compares the string at {@code offset} with {@code other} the same way the tables are sorted.
+     */
+    private int compareString(int offset, byte[] other) {
+        var length = buffer.getInt(offset);
+        var commonLength = Math.min(length, other.length);
+        for (int i = 0; i < commonLength; i++) {
+            var comparison = Byte.compareUnsigned(buffer.get(offset + 4 + i), other[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
+    private boolean stringEquals(int offset, byte[] other) {
+        return buffer.getInt(offset) == other.length && compareString(offset, other) == 0;
+    }
+
+    private boolean regionEquals(int position, int end, byte[] other) {
+        if (end - position < other.length) {
+            return false;
+        }
+        for (int i = 0; i < other.length; i++) {
+            if (buffer.get(position + i) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private String readString(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        var bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> readJavadoc(int offset) {
+        var lineCount = buffer.getInt(offset);
+        if (lineCount == 0) {
+            return List.of();
+        }
+        var lines = new String[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            lines[i] = readString(buffer.getInt(offset + 4 + i * 4));
+        }
+        return List.of(lines);
+    }
+
+    private final class IndexedClass implements NamesAndDocsForClass {
+        private final int offset;
+
+        IndexedClass(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public List<String> getJavadoc() {
+            return readJavadoc(buffer.getInt(offset));
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForField getField(String name) {
+            var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = buffer.getInt(offset + 4) - 1;
+            while (low <= high) {
+                var middle = (low + high) >>> 1;
+                var entry = offset + 8 + middle * FIELD_ENTRY_SIZE;
+                var comparison = compareString(buffer.getInt(entry), nameBytes);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    var javadocOffset = buffer.getInt(entry + 4);
+                    return () -> readJavadoc(javadocOffset);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Collection<String> getFieldNames() {
+            var fieldCount = buffer.getInt(offset + 4);
+            var names = new ArrayList<String>(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                names.add(readString(buffer.getInt(offset + 8 + i * FIELD_ENTRY_SIZE)));
+            }
+            return names;
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForMethod getMethod(String name, String methodSignature) {
+            var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            var signatureBytes = methodSignature.getBytes(StandardCharsets.UTF_8);
+            var methodTable = getMethodTable();
+            int low = 0;
+            int high = buffer.getInt(methodTable) - 1;
+            while (low <= high) {
+                var middle = (low + high) >>> 1;
+                var entry = methodTable + 4 + middle * METHOD_ENTRY_SIZE;
+                var comparison = compareString(buffer.getInt(entry), nameBytes);
+                if (comparison == 0) {
+                    comparison = compareString(buffer.getInt(entry + 4), signatureBytes);
+                }
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return new IndexedMethod(buffer.getInt(entry + 8));
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Matches the descriptors of all overloads against the parameter types in a single pass, instead of
+         * building and looking up the descriptor of each prefix.
+         */
+        @Override
+        public @Nullable ParameterPrefixMatch findMethodByParameterPrefix(String name, List<String> parameterTypes, String returnType) {
+            var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            var methodTable = getMethodTable();
+            var methodCount = buffer.getInt(methodTable);
+            var low = findFirstOverload(methodTable, nameBytes);
+            if (low == methodCount || !stringEquals(buffer.getInt(methodTable + 4 + low * METHOD_ENTRY_SIZE), nameBytes)) {
+                return null;
+            }
+
+            var parameterTypeBytes = new byte[parameterTypes.size()][];
+            for (int i = 0; i < parameterTypeBytes.length; i++) {
+                parameterTypeBytes[i] = parameterTypes.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+            var returnTypeBytes = returnType.getBytes(StandardCharsets.UTF_8);
+
+            var bestEntry = -1;
+            var bestCount = 0;
+            for (int i = low; i < methodCount; i++) {
+                var entry = methodTable + 4 + i * METHOD_ENTRY_SIZE;
+                if (!stringEquals(buffer.getInt(entry), nameBytes)) {
+                    break;
+                }
+                var count = matchParameterPrefix(buffer.getInt(entry + 4), parameterTypeBytes, returnTypeBytes);
+                if (count > bestCount) {
+                    bestEntry = entry;
+                    bestCount = count;
+                }
+            }
+            return bestEntry != -1 ? new ParameterPrefixMatch(new IndexedMethod(buffer.getInt(bestEntry + 8)), bestCount) : null;
+        }
+
+        /**
+         * @return The number of parameter types the descriptor at {@code descriptorOffset} consists of, or 0 if
+         * it is not made of a non-empty prefix of them and the return type.
+         */
+        private int matchParameterPrefix(int descriptorOffset, byte[][] parameterTypes, byte[] returnType) {
+            var position = descriptorOffset + 4;
+            var end = position + buffer.getInt(descriptorOffset);
+            if (position == end || buffer.get(position++) != '(') {
+                return 0;
+            }
+            var count = 0;
+            while (count < parameterTypes.length && position < end && buffer.get(position) != ')') {
+                if (!regionEquals(position, end, parameterTypes[count])) {
+                    return 0;
+                }
+                position += parameterTypes[count++].length;
+            }
+            if (count == 0 || position == end || buffer.get(position++) != ')') {
+                return 0;
+            }
+            return end - position == returnType.length && regionEquals(position, end, returnType) ? count : 0;
+        }
+
+        @Override
+        public Collection<String> getMethodSignatures(String name) {
+            var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            var methodTable = getMethodTable();
+            var methodCount = buffer.getInt(methodTable);
+            var signatures = new ArrayList<String>();
+            for (int i = findFirstOverload(methodTable, nameBytes); i < methodCount; i++) {
+                var entry = methodTable + 4 + i * METHOD_ENTRY_SIZE;
+                if (!stringEquals(buffer.getInt(entry), nameBytes)) {
+                    break;
+                }
+                signatures.add(readString(buffer.getInt(entry + 4)));
+            }
+            return signatures;
+        }
+
+        /**
+         * @return The position of the first method named {@code nameBytes}, or where it would be, since overloads
+         * are next to each other.
+         */
+        private int findFirstOverload(int methodTable, byte[] nameBytes) {
+            int low = 0;
+            int high = buffer.getInt(methodTable);
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (compareString(buffer.getInt(methodTable + 4 + middle * METHOD_ENTRY_SIZE), nameBytes) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public Collection<String> getMethodNames() {
+            var methodTable = getMethodTable();
+            var methodCount = buffer.getInt(methodTable);
+            var names = new LinkedHashSet<String>(methodCount);
+            for (int i = 0; i < methodCount; i++) {
+                names.add(readString(buffer.getInt(methodTable + 4 + i * METHOD_ENTRY_SIZE)));
+            }
+            return names;
+        }
+
+        private int getMethodTable() {
+            return offset + 8 + buffer.getInt(offset + 4) * FIELD_ENTRY_SIZE;
+        }
+    }
+
+    private final class IndexedMethod implements NamesAndDocsForMethod {
+        private final int offset;
+
+        IndexedMethod(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public List<String> getJavadoc() {
+            return readJavadoc(buffer.getInt(offset));
+        }
+
+        @Override
+        public @Nullable NamesAndDocsForParameter getParameter(int index, int jvmIndex) {
+            var key = parametersBySourceIndex ? index : jvmIndex;
+            var parameterCount = buffer.getInt(offset + 4);
+            for (int i = 0; i < parameterCount; i++) {
+                var entry = offset + 8 + i * 12;
+                if (buffer.getInt(entry) == key) {
+                    return readParameter(entry);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByIndex() {
+            return parametersBySourceIndex ? readParameters() : Map.of();
+        }
+
+        @Override
+        public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByJvmIndex() {
+            return parametersBySourceIndex ? Map.of() : readParameters();
+        }
+
+        private Map<Integer, NamesAndDocsForParameter> readParameters() {
+            var parameterCount = buffer.getInt(offset + 4);
+            var parameters = new HashMap<Integer, NamesAndDocsForParameter>(parameterCount);
+            for (int i = 0; i < parameterCount; i++) {
+                var entry = offset + 8 + i * 12;
+                parameters.put(buffer.getInt(entry), readParameter(entry));
+            }
+            return parameters;
+        }
+
+        private NamesAndDocsForParameter readParameter(int entry) {
+            var parameterName = readString(buffer.getInt(entry + 4));
+            var parameterJavadoc = readString(buffer.getInt(entry + 8));
+            return new NamesAndDocsForParameter() {
+                @Override
+                public @Nullable String getName() {
+                    return parameterName;
+                }
+
+                @Override
+                public @Nullable String getJavadoc() {
+                    return parameterJavadoc;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package net.neoforged.jst.parchment.namesanddocs.index;
+
+import net.neoforged.jst.parchment.namesanddocs.NameAndDocSourceLoader;
+import net.neoforged.jst.parchment.namesanddocs.NameAndDocsFormat;
+import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
+import net.neoforged.jst.parchment.namesanddocs.srgutils.MappingFileDatabase;
+import picocli.CommandLine;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Compiles Parchment or TSRG mappings into a mapping index, which can be passed to {@code --parchment-mappings}
+ * instead of the original mappings to avoid parsing them on every run.
+ */
+@CommandLine.Command(name = "jst-compile-mappings", mixinStandardHelpOptions = true, usageHelpWidth = 100,
+        description = "Compiles Parchment or TSRG mappings into a .jstidx mapping index.")
+public class MappingIndexCompiler implements Callable<Integer> {
+    @CommandLine.Parameters(index = "0", paramLabel = "INPUT", description = "Path to the Parchment (zip or json) or TSRG mappings.")
+    Path inputPath;
+
+    @CommandLine.Parameters(index = "1", paramLabel = "OUTPUT", description = "Path to write the mapping index to.")
+    Path outputPath;
+
+    @CommandLine.Option(names = "--format", description = "Specify the format of INPUT explicitly, instead of detecting it from the file extension. One of PARCHMENT_ZIP, PARCHMENT_JSON or TSRG2.")
+    NameAndDocsFormat format;
+
+    public static void main(String[] args) {
+        var commandLine = new CommandLine(new MappingIndexCompiler());
+        commandLine.setCaseInsensitiveEnumValuesAllowed(true);
+        System.exit(commandLine.execute(args));
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        var database = NameAndDocSourceLoader.load(inputPath, format);
+        MappingIndexWriter writer;
+        if (database instanceof ParchmentDatabase parchmentDatabase) {
+            writer = MappingIndexWriter.fromParchment(parchmentDatabase);
+        } else if (database instanceof MappingFileDatabase mappingFileDatabase) {
+            writer = MappingIndexWriter.fromMappingFile(mappingFileDatabase.getMappingFile());
+        } else {
+            System.err.println(inputPath + " is already a mapping index");
+            return 1;
+        }
+
+        writer.write(outputPath);
+        System.out.println("Wrote " + writer.getClassCount() + " classes to " + outputPath);
+        return 0;
+    }
+}
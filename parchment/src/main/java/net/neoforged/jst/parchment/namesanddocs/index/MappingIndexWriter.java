@@ -0,0 +1,302 @@
+package net.neoforged.jst.parchment.namesanddocs.index;
+
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsFilter;
+import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
+import net.neoforged.srgutils.IMappingFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects names and docs and writes them in the format read by {@link MappingIndex}.
+ * <p>
+ * All offsets in the format are absolute positions in the file. The file starts with a header, followed by a table
+ * of all classes sorted by the UTF-8 bytes of their name, which allows binary searching it:
+ * <pre>
+ * int magic, int version, int flags, int classCount, int filterKeysOffset
+ * classCount * (int nameOffset, int classOffset)
+ * </pre>
+ * The rest of the file contains the following records, which are only decoded when they are looked up:
+ * <pre>
+ * string:  int byteCount, byte[byteCount] utf8
+ * javadoc: int lineCount, lineCount * int lineOffset
+ * class:   int javadocOffset,
+ *          int fieldCount, fieldCount * (int nameOffset, int javadocOffset),
+ *          int methodCount, methodCount * (int nameOffset, int descriptorOffset, int methodOffset)
+ * method:  int javadocOffset, int parameterCount, parameterCount * (int index, int nameOffset, int javadocOffset)
+ * filter keys: int keyCount, keyCount * int key
+ * </pre>
+ * Optional strings use an offset of {@code -1}. Like the class table, the fields of a class are sorted by the UTF-8
+ * bytes of their name, and its methods by those of their name and then their descriptor. The filter keys are those
+ * of all classes and methods for a {@link NamesAndDocsFilter}, so building the filter does not decode any names.
+ */
+public final class MappingIndexWriter {
+    static final int MAGIC = 0x4A535458; // "JSTX"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 20;
+    static final int CLASS_TABLE_ENTRY_SIZE = 8;
+    static final int FIELD_ENTRY_SIZE = 8;
+    static final int METHOD_ENTRY_SIZE = 12;
+    static final int NO_STRING = -1;
+    /**
+     * Parameters are identified by their index in the source code instead of their JVM index.
+     */
+    static final int FLAG_PARAMETERS_BY_SOURCE_INDEX = 1;
+
+    private final boolean parametersBySourceIndex;
+    private final Map<String, ClassBuilder> classes = new HashMap<>();
+
+    /**
+     * @param parametersBySourceIndex whether the indices of parameters added to methods are their position in the
+     *                                parameter list, rather than the JVM local variable index
+     */
+    public MappingIndexWriter(boolean parametersBySourceIndex) {
+        this.parametersBySourceIndex = parametersBySourceIndex;
+    }
+
+    public static MappingIndexWriter fromParchment(ParchmentDatabase database) {
+        var writer = new MappingIndexWriter(false);
+        database.writeTo(writer);
+        return writer;
+    }
+
+    public static MappingIndexWriter fromMappingFile(IMappingFile mappingFile) {
+        var writer = new MappingIndexWriter(true);
+        for (var classData : mappingFile.getClasses()) {
+            var classBuilder = writer.addClass(classData.getOriginal(), List.of());
+            for (var methodData : classData.getMethods()) {
+                var methodBuilder = classBuilder.addMethod(methodData.getOriginal(), methodData.getDescriptor(), List.of());
+                for (var parameterData : methodData.getParameters()) {
+                    // Same as MappingFileMethodData, parameters without a mapped name are treated as missing
+                    if (parameterData.getMapped() != null) {
+                        methodBuilder.addParameter(parameterData.getIndex(), parameterData.getOriginal(), null);
+                    }
+                }
+            }
+        }
+        return writer;
+    }
+
+    public ClassBuilder addClass(String name, List<String> javadoc) {
+        var classBuilder = new ClassBuilder(javadoc);
+        if (classes.putIfAbsent(name, classBuilder) != null) {
+            throw new IllegalArgumentException("Duplicate class " + name);
+        }
+        return classBuilder;
+    }
+
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    public void write(Path path) throws IOException {
+        var sortedClasses = classes.entrySet().stream()
+                .map(entry -> new SortedClass(entry.getKey(), entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()))
+                .sorted((a, b) -> Arrays.compareUnsigned(a.nameBytes, b.nameBytes))
+                .toList();
+
+        var body = new Body(HEADER_SIZE + sortedClasses.size() * CLASS_TABLE_ENTRY_SIZE);
+        var classTable = new int[sortedClasses.size() * 2];
+        var filterKeys = new ArrayList<Integer>();
+        for (int i = 0; i < sortedClasses.size(); i++) {
+            var sortedClass = sortedClasses.get(i);
+            classTable[i * 2] = body.string(sortedClass.nameBytes);
+            classTable[i * 2 + 1] = sortedClass.builder.write(body);
+            sortedClass.builder.addFilterKeys(sortedClass.name, filterKeys);
+        }
+        var filterKeysOffset = body.offset();
+        body.out.writeInt(filterKeys.size());
+        for (var key : filterKeys) {
+            body.out.writeInt(key);
+        }
+
+        try (var out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(parametersBySourceIndex ? FLAG_PARAMETERS_BY_SOURCE_INDEX : 0);
+            out.writeInt(sortedClasses.size());
+            out.writeInt(filterKeysOffset);
+            for (var value : classTable) {
+                out.writeInt(value);
+            }
+            body.bytes.writeTo(out);
+        }
+    }
+
+    public static final class ClassBuilder {
+        private final List<String> javadoc;
+        private final Map<String, List<String>> fields = new HashMap<>();
+        private final Map<String, MethodBuilder> methods = new HashMap<>();
+
+        private ClassBuilder(List<String> javadoc) {
+            this.javadoc = javadoc;
+        }
+
+        public void addField(String name, List<String> javadoc) {
+            fields.put(name, javadoc);
+        }
+
+        public MethodBuilder addMethod(String name, String descriptor, List<String> javadoc) {
+            var methodBuilder = new MethodBuilder(name, descriptor, javadoc);
+            methods.put(name + descriptor, methodBuilder);
+            return methodBuilder;
+        }
+
+        private List<MethodBuilder> sortedMethods() {
+            return methods.values().stream()
+                    .sorted((a, b) -> {
+                        var comparison = compareUtf8(a.name, b.name);
+                        return comparison != 0 ? comparison : compareUtf8(a.descriptor, b.descriptor);
+                    })
+                    .toList();
+        }
+
+        private void addFilterKeys(String className, List<Integer> keys) {
+            var classKey = NamesAndDocsFilter.classKey(className);
+            keys.add(classKey);
+            String previousName = null;
+            for (var method : sortedMethods()) {
+                // Overloads are next to each other, and only need to be added once
+                if (!method.name.equals(previousName)) {
+                    keys.add(NamesAndDocsFilter.methodKey(classKey, method.name));
+                    previousName = method.name;
+                }
+            }
+        }
+
+        private int write(Body body) throws IOException {
+            var javadocOffset = body.javadoc(javadoc);
+            var fieldEntries = new ArrayList<int[]>(fields.size());
+            for (var field : fields.entrySet().stream().sorted((a, b) -> compareUtf8(a.getKey(), b.getKey())).toList()) {
+                fieldEntries.add(new int[]{body.string(field.getKey()), body.javadoc(field.getValue())});
+            }
+            var methodEntries = new ArrayList<int[]>(methods.size());
+            for (var method : sortedMethods()) {
+                methodEntries.add(new int[]{body.string(method.name), body.string(method.descriptor), method.write(body)});
+            }
+
+            var offset = body.offset();
+            body.out.writeInt(javadocOffset);
+            body.out.writeInt(fieldEntries.size());
+            for (var entry : fieldEntries) {
+                body.writeInts(entry);
+            }
+            body.out.writeInt(methodEntries.size());
+            for (var entry : methodEntries) {
+                body.writeInts(entry);
+            }
+            return offset;
+        }
+    }
+
+    public static final class MethodBuilder {
+        private final String name;
+        private final String descriptor;
+        private final List<String> javadoc;
+        private final Map<Integer, String[]> parameters = new HashMap<>();
+
+        private MethodBuilder(String name, String descriptor, List<String> javadoc) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.javadoc = javadoc;
+        }
+
+        public void addParameter(int index, @Nullable String name, @Nullable String javadoc) {
+            parameters.put(index, new String[]{name, javadoc});
+        }
+
+        private int write(Body body) throws IOException {
+            var javadocOffset = body.javadoc(javadoc);
+            var parameterEntries = new ArrayList<int[]>(parameters.size());
+            for (var parameter : parameters.entrySet()) {
+                parameterEntries.add(new int[]{parameter.getKey(), body.string(parameter.getValue()[0]), body.string(parameter.getValue()[1])});
+            }
+
+            var offset = body.offset();
+            body.out.writeInt(javadocOffset);
+            body.out.writeInt(parameterEntries.size());
+            for (var entry : parameterEntries) {
+                body.writeInts(entry);
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Compares strings the same way {@link MappingIndex} compares the strings it binary searches for.
+     */
+    private static int compareUtf8(String a, String b) {
+        return Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record SortedClass(String name, byte[] nameBytes, ClassBuilder builder) {
+    }
+
+    /**
+     * The part of the file after the class table, which deduplicates the strings written to it.
+     */
+    private static final class Body {
+        private final int baseOffset;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> stringOffsets = new HashMap<>();
+
+        Body(int baseOffset) {
+            this.baseOffset = baseOffset;
+        }
+
+        int offset() {
+            var offset = (long) baseOffset + bytes.size();
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Mapping index exceeds the maximum size of 2 GiB");
+            }
+            return (int) offset;
+        }
+
+        int string(@Nullable String value) throws IOException {
+            if (value == null) {
+                return NO_STRING;
+            }
+            var offset = stringOffsets.get(value);
+            if (offset == null) {
+                offset = string(value.getBytes(StandardCharsets.UTF_8));
+                stringOffsets.put(value, offset);
+            }
+            return offset;
+        }
+
+        int string(byte[] utf8) throws IOException {
+            var offset = offset();
+            out.writeInt(utf8.length);
+            out.write(utf8);
+            return offset;
+        }
+
+        int javadoc(List<String> lines) throws IOException {
+            var lineOffsets = new int[lines.size()];
+            for (int i = 0; i < lineOffsets.length; i++) {
+                lineOffsets[i] = string(lines.get(i));
+            }
+            var offset = offset();
+            out.writeInt(lineOffsets.length);
+            writeInts(lineOffsets);
+            return offset;
+        }
+
+        void writeInts(int[] values) throws IOException {
+            for (var value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package net.neoforged.jst.parchment.namesanddocs.parchment;
+
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The methods of a class with the same name, arranged by the types of their parameters.
+ * <p>
+ * Each node is reached by one parameter type from its parent, so the path from the root to a node spells out the
+ * parameter list of the methods stored at it. Methods that only differ by their return type share a node.
+ */
+final class ParameterPrefixTrie {
+    private static final ParameterPrefixTrie[] NO_CHILDREN = new ParameterPrefixTrie[0];
+
+    @Nullable
+    private final String parameterType;
+    private ParameterPrefixTrie[] children = NO_CHILDREN;
+    /**
+     * The methods whose parameter list ends at this node, chained through
+     * {@link ParchmentNamesAndDocsForMethod#nextWithSameParameters}.
+     */
+    @Nullable
+    private ParchmentNamesAndDocsForMethod methods;
+
+    ParameterPrefixTrie() {
+        this(null);
+    }
+
+    private ParameterPrefixTrie(@Nullable String parameterType) {
+        this.parameterType = parameterType;
+    }
+
+    void add(ParchmentNamesAndDocsForMethod method) {
+        var descriptor = method.descriptor;
+        if (!descriptor.startsWith("(") || descriptor.indexOf(')') == -1) {
+            throw new IllegalArgumentException("Malformed method descriptor " + descriptor);
+        }
+        var node = this;
+        var start = 1;
+        while (descriptor.charAt(start) != ')') {
+            var end = getTypeEnd(descriptor, start);
+            var child = node.getChild(descriptor, start, end);
+            if (child == null) {
+                child = new ParameterPrefixTrie(descriptor.substring(start, end));
+                node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                node.children[node.children.length - 1] = child;
+            }
+            node = child;
+            start = end;
+        }
+        method.nextWithSameParameters = node.methods;
+        node.methods = method;
+    }
+
+    @Nullable
+    ParchmentNamesAndDocsForMethod get(String descriptor) {
+        var node = this;
+        var start = 1;
+        while (descriptor.charAt(start) != ')') {
+            var end = getTypeEnd(descriptor, start);
+            node = node.getChild(descriptor, start, end);
+            if (node == null) {
+                return null;
+            }
+            start = end;
+        }
+        for (var method = node.methods; method != null; method = method.nextWithSameParameters) {
+            if (method.descriptor.equals(descriptor)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the method with the given return type whose parameters are the longest non-empty prefix of
+     * {@code parameterTypes}, in a single walk down the trie.
+     * An entry of {@code parameterTypes} may contain several parameter types, which are only matched together.
+     */
+    @Nullable
+    NamesAndDocsForClass.ParameterPrefixMatch getLongestPrefix(List<String> parameterTypes, String returnType) {
+        ParchmentNamesAndDocsForMethod result = null;
+        var resultCount = 0;
+        var node = this;
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            var parameterType = parameterTypes.get(i);
+            var start = 0;
+            while (node != null && start < parameterType.length()) {
+                var end = getTypeEnd(parameterType, start);
+                node = node.getChild(parameterType, start, end);
+                start = end;
+            }
+            if (node == null) {
+                break;
+            }
+            for (var method = node.methods; method != null; method = method.nextWithSameParameters) {
+                var descriptor = method.descriptor;
+                var returnTypeStart = descriptor.length() - returnType.length();
+                if (returnTypeStart > 0 && descriptor.charAt(returnTypeStart - 1) == ')' && descriptor.startsWith(returnType, returnTypeStart)) {
+                    result = method;
+                    resultCount = i + 1;
+                    break;
+                }
+            }
+        }
+        return result != null ? new NamesAndDocsForClass.ParameterPrefixMatch(result, resultCount) : null;
+    }
+
+    void forEach(Consumer<ParchmentNamesAndDocsForMethod> consumer) {
+        for (var method = methods; method != null; method = method.nextWithSameParameters) {
+            consumer.accept(method);
+        }
+        for (var child : children) {
+            child.forEach(consumer);
+        }
+    }
+
+    @Nullable
+    private ParameterPrefixTrie getChild(String descriptor, int start, int end) {
+        var length = end - start;
+        for (var child : children) {
+            if (child.parameterType.length() == length && descriptor.startsWith(child.parameterType, start)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static int getTypeEnd(String descriptor, int start) {
+        var end = start;
+        while (descriptor.charAt(end) == '[') {
+            end++;
+        }
+        if (descriptor.charAt(end) == 'L') {
+            end = descriptor.indexOf(';', end);
+            if (end == -1) {
+                throw new IllegalArgumentException("Malformed method descriptor " + descriptor);
+            }
+        }
+        return end + 1;
+    }
+}
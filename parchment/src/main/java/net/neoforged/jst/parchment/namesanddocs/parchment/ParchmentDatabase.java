@@ -1,38 +1,62 @@
 package net.neoforged.jst.parchment.namesanddocs.parchment;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsDatabase;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForClass;
-import org.parchmentmc.feather.io.gson.MDCGsonAdapterFactory;
-import org.parchmentmc.feather.io.gson.SimpleVersionAdapter;
-import org.parchmentmc.feather.mapping.VersionedMappingDataContainer;
-import org.parchmentmc.feather.util.SimpleVersion;
+import net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+/**
+ * Names and docs read from a Parchment JSON export.
+ * <p>
+ * The data is read into compact lookup tables once, and lookups return the same shared instances every time.
+ */
 public class ParchmentDatabase implements NamesAndDocsDatabase {
-    private final VersionedMappingDataContainer container;
+    private final Map<String, ParchmentNamesAndDocsForClass> classes;
 
-    public ParchmentDatabase(VersionedMappingDataContainer container) {
-        this.container = container;
+    ParchmentDatabase(Map<String, ParchmentNamesAndDocsForClass> classes) {
+        this.classes = classes;
+    }
+
+    @Override
+    public Collection<String> getClassNames() {
+        return classes.keySet();
     }
 
     @Override
     public NamesAndDocsForClass getClass(String className) {
-        var classData = container.getClass(className);
-        if (classData != null) {
-            return new ParchmentNamesAndDocsForClass(classData);
-        } else {
-            return null;
+        return classes.get(className);
+    }
+
+    /**
+     * Adds all names and docs of this database to the given index writer.
+     */
+    public void writeTo(MappingIndexWriter writer) {
+        for (var classEntry : classes.entrySet()) {
+            var classData = classEntry.getValue();
+            var classBuilder = writer.addClass(classEntry.getKey(), classData.getJavadoc());
+            for (var fieldEntry : classData.getFields().entrySet()) {
+                classBuilder.addField(fieldEntry.getKey(), fieldEntry.getValue().getJavadoc());
+            }
+            for (var methodEntry : classData.getMethodsByName().entrySet()) {
+                methodEntry.getValue().forEach(method -> {
+                    var methodBuilder = classBuilder.addMethod(methodEntry.getKey(), method.descriptor, method.getJavadoc());
+                    for (var parameter : method.getParameters()) {
+                        methodBuilder.addParameter(parameter.index, parameter.getName(), parameter.getJavadoc());
+                    }
+                });
+            }
         }
     }
 
@@ -77,10 +101,10 @@ public class ParchmentDatabase implements NamesAndDocsDatabase {
     }
 
     public static ParchmentDatabase loadJson(Reader reader) {
-        Gson gson = new GsonBuilder()
-                .registerTypeAdapterFactory(new MDCGsonAdapterFactory())
-                .registerTypeAdapter(SimpleVersion.class, new SimpleVersionAdapter())
-                .create();
-        return new ParchmentDatabase(gson.fromJson(reader, VersionedMappingDataContainer.class));
+        try {
+            return new ParchmentDatabase(ParchmentJsonReader.read(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,214 @@
+package net.neoforged.jst.parchment.namesanddocs.parchment;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Parchment JSON exports token by token, directly into the lookup tables of {@link ParchmentDatabase}.
+ * <p>
+ * Strings that commonly repeat, such as descriptors, parameter names and javadoc lines, are only kept once.
+ */
+final class ParchmentJsonReader {
+    private static final int SUPPORTED_MAJOR_VERSION = 1;
+
+    private final JsonReader reader;
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<List<String>, List<String>> javadocs = new HashMap<>();
+
+    private ParchmentJsonReader(Reader reader) {
+        this.reader = new JsonReader(reader);
+    }
+
+    static Map<String, ParchmentNamesAndDocsForClass> read(Reader reader) throws IOException {
+        return new ParchmentJsonReader(reader).readRoot();
+    }
+
+    private Map<String, ParchmentNamesAndDocsForClass> readRoot() throws IOException {
+        String version = null;
+        var classes = new HashMap<String, ParchmentNamesAndDocsForClass>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "version" -> version = reader.nextString();
+                case "classes" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readClass(classes);
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (version == null) {
+            throw new JsonParseException("Parchment data has no version");
+        }
+        var majorVersion = version.contains(".") ? version.substring(0, version.indexOf('.')) : version;
+        if (!String.valueOf(SUPPORTED_MAJOR_VERSION).equals(majorVersion)) {
+            throw new JsonParseException("Parchment data version " + version + " is not supported, expected " + SUPPORTED_MAJOR_VERSION + ".x");
+        }
+        return classes;
+    }
+
+    private void readClass(Map<String, ParchmentNamesAndDocsForClass> classes) throws IOException {
+        String name = null;
+        var javadoc = List.<String>of();
+        Map<String, ParchmentNamesAndDocsForField> fields = Map.of();
+        Map<String, ParameterPrefixTrie> methodsByName = Map.of();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = reader.nextString();
+                case "javadoc" -> javadoc = readJavadoc();
+                case "fields" -> fields = readFields();
+                case "methods" -> methodsByName = readMethods();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (name == null) {
+            throw new JsonParseException("Class without a name at " + reader.getPath());
+        }
+        classes.put(name, new ParchmentNamesAndDocsForClass(javadoc, fields, methodsByName));
+    }
+
+    private Map<String, ParchmentNamesAndDocsForField> readFields() throws IOException {
+        var fields = new HashMap<String, ParchmentNamesAndDocsForField>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            var javadoc = List.<String>of();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> name = reader.nextString();
+                    case "javadoc" -> javadoc = readJavadoc();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (name == null) {
+                throw new JsonParseException("Field without a name at " + reader.getPath());
+            }
+            fields.put(name, new ParchmentNamesAndDocsForField(javadoc));
+        }
+        reader.endArray();
+        return fields;
+    }
+
+    private Map<String, ParameterPrefixTrie> readMethods() throws IOException {
+        var methodsByName = new HashMap<String, ParameterPrefixTrie>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            String descriptor = null;
+            var javadoc = List.<String>of();
+            var parameters = List.<ParchmentNamesAndDocsForParameter>of();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> name = reader.nextString();
+                    case "descriptor" -> descriptor = intern(reader.nextString());
+                    case "javadoc" -> javadoc = readJavadoc();
+                    case "parameters" -> parameters = readParameters();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (name == null || descriptor == null) {
+                throw new JsonParseException("Method without a name or descriptor at " + reader.getPath());
+            }
+            var method = new ParchmentNamesAndDocsForMethod(descriptor, javadoc, parameters);
+            try {
+                methodsByName.computeIfAbsent(name, k -> new ParameterPrefixTrie()).add(method);
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage() + " at " + reader.getPath());
+            }
+        }
+        reader.endArray();
+        return methodsByName;
+    }
+
+    private List<ParchmentNamesAndDocsForParameter> readParameters() throws IOException {
+        var parameters = new ArrayList<ParchmentNamesAndDocsForParameter>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            var index = -1;
+            String name = null;
+            String javadoc = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "index" -> index = reader.nextInt();
+                    case "name" -> name = intern(nextNullableString());
+                    case "javadoc" -> javadoc = nextNullableString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (index == -1) {
+                throw new JsonParseException("Parameter without an index at " + reader.getPath());
+            }
+            parameters.add(new ParchmentNamesAndDocsForParameter(index, name, javadoc));
+        }
+        reader.endArray();
+        return parameters;
+    }
+
+    private List<String> readJavadoc() throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return List.of();
+        } else if (reader.peek() == JsonToken.STRING) {
+            return internJavadoc(List.of(intern(reader.nextString())));
+        }
+
+        var lines = new ArrayList<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            lines.add(intern(reader.nextString()));
+        }
+        reader.endArray();
+        return internJavadoc(List.copyOf(lines));
+    }
+
+    @Nullable
+    private String nextNullableString() throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private List<String> internJavadoc(List<String> javadoc) {
+        if (javadoc.isEmpty()) {
+            return List.of();
+        }
+        return javadocs.computeIfAbsent(javadoc, k -> k);
+    }
+
+    @Nullable
+    private String intern(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        return strings.computeIfAbsent(value, k -> k);
+    }
+}
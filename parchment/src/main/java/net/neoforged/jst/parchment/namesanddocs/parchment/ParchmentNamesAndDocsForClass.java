@@ -3,31 +3,72 @@ package net.neoforged.jst.parchment.namesanddocs.parchment;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForClass;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForField;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
-import org.parchmentmc.feather.mapping.MappingDataContainer;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 class ParchmentNamesAndDocsForClass implements NamesAndDocsForClass {
-    private final MappingDataContainer.ClassData classData;
+    private final List<String> javadoc;
+    private final Map<String, ParchmentNamesAndDocsForField> fields;
+    private final Map<String, ParameterPrefixTrie> methodsByName;
 
-    public ParchmentNamesAndDocsForClass(MappingDataContainer.ClassData classData) {
-        this.classData = classData;
+    ParchmentNamesAndDocsForClass(List<String> javadoc, Map<String, ParchmentNamesAndDocsForField> fields, Map<String, ParameterPrefixTrie> methodsByName) {
+        this.javadoc = javadoc;
+        this.fields = fields;
+        this.methodsByName = methodsByName;
     }
 
     @Override
     public List<String> getJavadoc() {
-        return classData.getJavadoc();
+        return javadoc;
     }
 
     @Override
     public NamesAndDocsForField getField(String name) {
-        var fieldData = classData.getField(name);
-        return fieldData != null ? new ParchmentNamesAndDocsForField(fieldData) : null;
+        return fields.get(name);
+    }
+
+    @Override
+    public Collection<String> getFieldNames() {
+        return fields.keySet();
     }
 
     @Override
     public NamesAndDocsForMethod getMethod(String name, String methodSignature) {
-        var methodData = classData.getMethod(name, methodSignature);
-        return methodData != null ? new ParchmentNamesAndDocsForMethod(methodData) : null;
+        var methods = methodsByName.get(name);
+        return methods != null ? methods.get(methodSignature) : null;
+    }
+
+    @Override
+    public Collection<String> getMethodNames() {
+        return methodsByName.keySet();
+    }
+
+    @Override
+    public Collection<String> getMethodSignatures(String name) {
+        var methods = methodsByName.get(name);
+        if (methods == null) {
+            return List.of();
+        }
+        var signatures = new ArrayList<String>();
+        methods.forEach(method -> signatures.add(method.descriptor));
+        return signatures;
+    }
+
+    @Override
+    public @Nullable ParameterPrefixMatch findMethodByParameterPrefix(String name, List<String> parameterTypes, String returnType) {
+        var methods = methodsByName.get(name);
+        return methods != null ? methods.getLongestPrefix(parameterTypes, returnType) : null;
+    }
+
+    Map<String, ParchmentNamesAndDocsForField> getFields() {
+        return fields;
+    }
+
+    Map<String, ParameterPrefixTrie> getMethodsByName() {
+        return methodsByName;
     }
 }
@@ -1,19 +1,18 @@
 package net.neoforged.jst.parchment.namesanddocs.parchment;
 
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForField;
-import org.parchmentmc.feather.mapping.MappingDataContainer;
 
 import java.util.List;
 
 class ParchmentNamesAndDocsForField implements NamesAndDocsForField {
-    private final MappingDataContainer.FieldData fieldData;
+    private final List<String> javadoc;
 
-    public ParchmentNamesAndDocsForField(MappingDataContainer.FieldData fieldData) {
-        this.fieldData = fieldData;
+    ParchmentNamesAndDocsForField(List<String> javadoc) {
+        this.javadoc = javadoc;
     }
 
     @Override
     public List<String> getJavadoc() {
-        return fieldData.getJavadoc();
+        return javadoc;
     }
 }
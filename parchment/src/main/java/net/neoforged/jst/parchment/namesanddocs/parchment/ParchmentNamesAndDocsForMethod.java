@@ -2,25 +2,61 @@ package net.neoforged.jst.parchment.namesanddocs.parchment;
 
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForParameter;
-import org.parchmentmc.feather.mapping.MappingDataContainer;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 class ParchmentNamesAndDocsForMethod implements NamesAndDocsForMethod {
-    private final MappingDataContainer.MethodData methodData;
+    private static final ParchmentNamesAndDocsForParameter[] NO_PARAMETERS = new ParchmentNamesAndDocsForParameter[0];
 
-    public ParchmentNamesAndDocsForMethod(MappingDataContainer.MethodData methodData) {
-        this.methodData = methodData;
+    final String descriptor;
+    private final List<String> javadoc;
+    private final ParchmentNamesAndDocsForParameter[] parameters;
+    /**
+     * The next method of the same class with the same name and parameters, which only differs by its return type.
+     * Set when the method is added to a {@link ParameterPrefixTrie}.
+     */
+    @Nullable
+    ParchmentNamesAndDocsForMethod nextWithSameParameters;
+
+    ParchmentNamesAndDocsForMethod(String descriptor, List<String> javadoc, List<ParchmentNamesAndDocsForParameter> parameters) {
+        this.descriptor = descriptor;
+        this.javadoc = javadoc;
+        this.parameters = parameters.isEmpty() ? NO_PARAMETERS : parameters.toArray(ParchmentNamesAndDocsForParameter[]::new);
     }
 
     @Override
     public List<String> getJavadoc() {
-        return methodData.getJavadoc();
+        return javadoc;
     }
 
     @Override
     public NamesAndDocsForParameter getParameter(int index, int jvmIndex) {
-        var paramData = methodData.getParameter((byte) jvmIndex);
-        return paramData != null ? new ParchmentNamesAndDocsForParameter(paramData) : null;
+        for (var parameter : parameters) {
+            if (parameter.index == jvmIndex) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByIndex() {
+        return Map.of();
+    }
+
+    @Override
+    public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByJvmIndex() {
+        var parametersByJvmIndex = new HashMap<Integer, ParchmentNamesAndDocsForParameter>(parameters.length);
+        for (var parameter : parameters) {
+            parametersByJvmIndex.put(parameter.index, parameter);
+        }
+        return parametersByJvmIndex;
+    }
+
+    ParchmentNamesAndDocsForParameter[] getParameters() {
+        return parameters;
     }
 }
@@ -2,22 +2,27 @@ package net.neoforged.jst.parchment.namesanddocs.parchment;
 
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForParameter;
 import org.jetbrains.annotations.Nullable;
-import org.parchmentmc.feather.mapping.MappingDataContainer;
 
 class ParchmentNamesAndDocsForParameter implements NamesAndDocsForParameter {
-    private final MappingDataContainer.ParameterData parameterData;
+    final int index;
+    @Nullable
+    private final String name;
+    @Nullable
+    private final String javadoc;
 
-    public ParchmentNamesAndDocsForParameter(MappingDataContainer.ParameterData parameterData) {
-        this.parameterData = parameterData;
+    ParchmentNamesAndDocsForParameter(int index, @Nullable String name, @Nullable String javadoc) {
+        this.index = index;
+        this.name = name;
+        this.javadoc = javadoc;
     }
 
     @Override
-    public String getName() {
-        return parameterData.getName();
+    public @Nullable String getName() {
+        return name;
     }
 
     @Override
     public @Nullable String getJavadoc() {
-        return parameterData.getJavadoc();
+        return javadoc;
     }
 }
@@ -5,6 +5,7 @@ import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForField;
 import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForMethod;
 import net.neoforged.srgutils.IMappingFile;
 
+import java.util.Collection;
 import java.util.List;
 
 class MappingFileClassData implements NamesAndDocsForClass {
@@ -25,9 +26,24 @@ class MappingFileClassData implements NamesAndDocsForClass {
         return null;
     }
 
+    @Override
+    public Collection<String> getFieldNames() {
+        return List.of();
+    }
+
     @Override
     public NamesAndDocsForMethod getMethod(String name, String methodSignature) {
         var methodData = classData.getMethod(name, methodSignature);
         return methodData != null ? new MappingFileMethodData(methodData) : null;
     }
+
+    @Override
+    public Collection<String> getMethodNames() {
+        return classData.getMethods().stream().map(IMappingFile.IMethod::getOriginal).distinct().toList();
+    }
+
+    @Override
+    public Collection<String> getMethodSignatures(String name) {
+        return classData.getMethods().stream().filter(method -> method.getOriginal().equals(name)).map(IMappingFile.IMethod::getDescriptor).toList();
+    }
 }
@@ -7,6 +7,7 @@ import net.neoforged.srgutils.INamedMappingFile;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 
 public class MappingFileDatabase implements NamesAndDocsDatabase {
     private final IMappingFile tree;
@@ -20,6 +21,15 @@ public class MappingFileDatabase implements NamesAndDocsDatabase {
         return new MappingFileDatabase(mappingFile);
     }
 
+    public IMappingFile getMappingFile() {
+        return tree;
+    }
+
+    @Override
+    public Collection<String> getClassNames() {
+        return tree.getClasses().stream().map(IMappingFile.IClass::getMapped).toList();
+    }
+
     @Override
     public NamesAndDocsForClass getClass(String className) {
         var classData = tree.getClass(className);
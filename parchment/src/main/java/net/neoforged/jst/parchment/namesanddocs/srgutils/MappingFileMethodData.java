@@ -5,7 +5,9 @@ import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsForParameter;
 import net.neoforged.srgutils.IMappingFile;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MappingFileMethodData implements NamesAndDocsForMethod {
     private final IMappingFile.IMethod methodData;
@@ -25,6 +27,26 @@ public class MappingFileMethodData implements NamesAndDocsForMethod {
         if (paramData == null || paramData.getMapped() == null) {
             return null;
         }
+        return toParameter(paramData);
+    }
+
+    @Override
+    public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByIndex() {
+        var parametersByIndex = new HashMap<Integer, NamesAndDocsForParameter>();
+        for (var paramData : methodData.getParameters()) {
+            if (paramData.getMapped() != null) {
+                parametersByIndex.put(paramData.getIndex(), toParameter(paramData));
+            }
+        }
+        return parametersByIndex;
+    }
+
+    @Override
+    public Map<Integer, ? extends NamesAndDocsForParameter> getParametersByJvmIndex() {
+        return Map.of();
+    }
+
+    private static NamesAndDocsForParameter toParameter(IMappingFile.IParameter paramData) {
         return new NamesAndDocsForParameter() {
             @Override
             public @Nullable String getName() {
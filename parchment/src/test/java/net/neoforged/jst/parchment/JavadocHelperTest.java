@@ -0,0 +1,109 @@
+package net.neoforged.jst.parchment;
+
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.PsiTreeUtil;
+import net.neoforged.jst.api.Logger;
+import net.neoforged.jst.api.Replacements;
+import net.neoforged.jst.cli.intellij.IntelliJEnvironmentImpl;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavadocHelperTest {
+    private static final List<String> JAVADOC = List.of("Runs the task.", "Returns immediately.");
+    private static final Map<String, String> PARAMETERS = Map.of("value", "The value to run with");
+    private static final List<String> PARAMETER_ORDER = List.of("value");
+
+    static IntelliJEnvironmentImpl ijEnv;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        ijEnv = new IntelliJEnvironmentImpl(new Logger(null, null));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        ijEnv.close();
+    }
+
+    @Test
+    void testRenderedJavadocCache() {
+        var file = parse("""
+                class Main {
+                    void first(int value) {}
+
+                    void second(int value) {}
+
+                    class Inner {
+                        void third(int value) {}
+                    }
+                }
+                """);
+        var cache = new JavadocHelper.RenderedJavadocCache();
+        var cached = new Replacements();
+        var uncached = new Replacements();
+
+        // Undocumented elements with the same javadoc at the same indentation share an entry
+        for (var name : List.of("first", "second")) {
+            JavadocHelper.enrichJavadoc(getMethod(file, name), JAVADOC, PARAMETERS, Map.of(), PARAMETER_ORDER, cache, cached);
+            JavadocHelper.enrichJavadoc(getMethod(file, name), JAVADOC, PARAMETERS, Map.of(), PARAMETER_ORDER, uncached);
+        }
+        assertThat(cache.size()).isEqualTo(1);
+
+        // A different indentation needs its own entry
+        JavadocHelper.enrichJavadoc(getMethod(file, "third"), JAVADOC, PARAMETERS, Map.of(), PARAMETER_ORDER, cache, cached);
+        JavadocHelper.enrichJavadoc(getMethod(file, "third"), JAVADOC, PARAMETERS, Map.of(), PARAMETER_ORDER, uncached);
+        assertThat(cache.size()).isEqualTo(2);
+
+        var result = cached.apply(file.getText());
+        assertThat(result).isEqualTo(uncached.apply(file.getText()));
+        assertThat(result).isEqualTo("""
+                class Main {
+                    /**
+                     * Runs the task.
+                     * Returns immediately.
+                     *
+                     * @param value The value to run with
+                     */
+                    void first(int value) {}
+
+                    /**
+                     * Runs the task.
+                     * Returns immediately.
+                     *
+                     * @param value The value to run with
+                     */
+                    void second(int value) {}
+
+                    class Inner {
+                        /**
+                         * Runs the task.
+                         * Returns immediately.
+                         *
+                         * @param value The value to run with
+                         */
+                        void third(int value) {}
+                    }
+                }
+                """);
+    }
+
+    private static PsiMethod getMethod(PsiJavaFile file, String name) {
+        return PsiTreeUtil.collectElementsOfType(file, PsiMethod.class).stream()
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static PsiJavaFile parse(@Language("JAVA") String javaCode) {
+        return (PsiJavaFile) ijEnv.parseFileFromMemory("Main.java", javaCode);
+    }
+}
@@ -0,0 +1,143 @@
+package net.neoforged.jst.parchment.namesanddocs;
+
+import net.neoforged.jst.parchment.namesanddocs.index.MappingIndex;
+import net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter;
+import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MergedNamesAndDocsDatabaseTest {
+    @TempDir
+    Path tempDir;
+
+    private static final NamesAndDocsDatabase BASE = ParchmentDatabase.loadJson(new StringReader("""
+            {
+              "version": "1.1.0",
+              "classes": [
+                {
+                  "name": "pkg/Shared",
+                  "javadoc": ["Base class doc"],
+                  "fields": [{"name": "field", "descriptor": "I", "javadoc": ["Base field doc"]}],
+                  "methods": [
+                    {
+                      "name": "run",
+                      "descriptor": "(I)V",
+                      "javadoc": ["Base method doc"],
+                      "parameters": [{"index": 1, "name": "baseName", "javadoc": "Base parameter doc"}]
+                    },
+                    {"name": "exec", "descriptor": "(IJ)V", "javadoc": ["Base exec doc"]}
+                  ]
+                },
+                {"name": "pkg/OnlyBase", "javadoc": ["Only base"]}
+              ]
+            }
+            """));
+    private static final NamesAndDocsDatabase OVERRIDE = ParchmentDatabase.loadJson(new StringReader("""
+            {
+              "version": "1.1.0",
+              "classes": [
+                {
+                  "name": "pkg/Shared",
+                  "methods": [
+                    {"name": "run", "descriptor": "(I)V", "parameters": [{"index": 1, "name": "overrideName"}]},
+                    {"name": "stop", "descriptor": "()V", "javadoc": ["Override method doc"]},
+                    {"name": "exec", "descriptor": "(I)V", "javadoc": ["Override exec doc"]}
+                  ]
+                },
+                {"name": "pkg/OnlyOverride", "javadoc": ["Only override"]}
+              ]
+            }
+            """));
+
+    @Test
+    void testSingleDatabaseIsNotWrapped() {
+        assertThat(MergedNamesAndDocsDatabase.of(List.of(BASE))).isSameAs(BASE);
+    }
+
+    @Test
+    void testContainsClassesOfAllDatabases() {
+        var merged = MergedNamesAndDocsDatabase.of(List.of(BASE, OVERRIDE));
+
+        assertThat(merged.getClassNames()).containsExactlyInAnyOrder("pkg/Shared", "pkg/OnlyBase", "pkg/OnlyOverride");
+        assertThat(merged.getClass("pkg/OnlyBase")).isSameAs(BASE.getClass("pkg/OnlyBase"));
+        assertThat(merged.getClass("pkg/OnlyOverride")).isSameAs(OVERRIDE.getClass("pkg/OnlyOverride"));
+        assertThat(merged.getClass("pkg/Missing")).isNull();
+    }
+
+    @Test
+    void testLaterDatabasesTakePrecedencePerElement() {
+        var shared = MergedNamesAndDocsDatabase.of(List.of(BASE, OVERRIDE)).getClass("pkg/Shared");
+
+        assertThat(shared.getJavadoc()).containsExactly("Base class doc");
+        assertThat(shared.getField("field").getJavadoc()).containsExactly("Base field doc");
+        assertThat(shared.getMethodNames()).containsExactlyInAnyOrder("run", "stop", "exec");
+        assertThat(shared.getMethod("stop", "()V").getJavadoc()).containsExactly("Override method doc");
+
+        var run = shared.getMethod("run", "(I)V");
+        assertThat(run.getJavadoc()).containsExactly("Base method doc");
+        var parameter = run.getParameter(0, 1);
+        assertThat(parameter.getName()).isEqualTo("overrideName");
+        assertThat(parameter.getJavadoc()).isEqualTo("Base parameter doc");
+    }
+
+    @Test
+    void testMethodByParameterPrefix() {
+        var shared = MergedNamesAndDocsDatabase.of(List.of(BASE, OVERRIDE)).getClass("pkg/Shared");
+
+        // The longest match wins regardless of precedence
+        assertThat(shared.getMethodByParameterPrefix("exec", List.of("I", "J", "Z"), "V").getJavadoc()).containsExactly("Base exec doc");
+        assertThat(shared.getMethodByParameterPrefix("exec", List.of("I", "Z"), "V").getJavadoc()).containsExactly("Override exec doc");
+
+        // Matches of the same length are merged
+        var run = shared.findMethodByParameterPrefix("run", List.of("I", "Z"), "V");
+        assertThat(run.parameterCount()).isEqualTo(1);
+        assertThat(run.method().getJavadoc()).containsExactly("Base method doc");
+        assertThat(run.method().getParameter(0, 1).getName()).isEqualTo("overrideName");
+
+        assertThat(shared.getMethodByParameterPrefix("run", List.of("J"), "V")).isNull();
+    }
+
+    @Test
+    void testMergesOnce() {
+        var shared = MergedNamesAndDocsDatabase.of(List.of(BASE, OVERRIDE)).getClass("pkg/Shared");
+
+        assertThat(shared.getFieldNames()).containsExactly("field");
+        assertThat(shared.getMethodSignatures("exec")).containsExactlyInAnyOrder("(IJ)V", "(I)V");
+        assertThat(shared.getField("field")).isSameAs(shared.getField("field"));
+        var run = shared.getMethod("run", "(I)V");
+        assertThat(run).isSameAs(shared.getMethod("run", "(I)V"));
+        assertThat(run.getParameter(0, 1)).isSameAs(run.getParameter(0, 1));
+        assertThat(shared.findMethodByParameterPrefix("run", List.of("I"), "V").method()).isSameAs(run);
+    }
+
+    @Test
+    void testMergesParametersWithDifferentIndices() throws IOException {
+        // Mapping files identify parameters by their position instead of their JVM index
+        var writer = new MappingIndexWriter(true);
+        writer.addClass("pkg/Shared", List.of())
+                .addMethod("run", "(I)V", List.of())
+                .addParameter(0, "positionName", null);
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+        var byPosition = MappingIndex.load(path);
+
+        var parameter = MergedNamesAndDocsDatabase.of(List.of(BASE, byPosition)).getClass("pkg/Shared")
+                .getMethod("run", "(I)V")
+                .getParameter(0, 1);
+        assertThat(parameter.getName()).isEqualTo("positionName");
+        assertThat(parameter.getJavadoc()).isEqualTo("Base parameter doc");
+
+        parameter = MergedNamesAndDocsDatabase.of(List.of(byPosition, BASE)).getClass("pkg/Shared")
+                .getMethod("run", "(I)V")
+                .getParameter(0, 1);
+        assertThat(parameter.getName()).isEqualTo("baseName");
+        assertThat(parameter.getJavadoc()).isEqualTo("Base parameter doc");
+    }
+}
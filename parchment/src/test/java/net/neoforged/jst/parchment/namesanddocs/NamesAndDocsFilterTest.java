@@ -0,0 +1,60 @@
+package net.neoforged.jst.parchment.namesanddocs;
+
+import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamesAndDocsFilterTest {
+    private static final String JSON = """
+            {
+              "version": "1.1.0",
+              "classes": [
+                {"name": "pkg/Outer", "methods": [{"name": "<init>", "descriptor": "()V"}, {"name": "run", "descriptor": "()V"}]},
+                {"name": "pkg/Outer$Inner", "methods": [{"name": "get", "descriptor": "()I"}]},
+                {"name": "pkg/Outer$1Local"},
+                {"name": "pkg/Outer$1"}
+              ]
+            }
+            """;
+
+    @Test
+    void testContainsAllEntries() {
+        var filter = NamesAndDocsFilter.build(ParchmentDatabase.loadJson(new StringReader(JSON)));
+
+        assertThat(filter.mightContainClass("Outer")).isTrue();
+        assertThat(filter.mightContainClass("Inner")).isTrue();
+        assertThat(filter.mightContainClass("Local")).isTrue();
+        // Anonymous classes have no name in the PSI
+        assertThat(filter.mightContainClass(null)).isTrue();
+        assertThat(filter.mightContainMethod("Outer", "<init>")).isTrue();
+        assertThat(filter.mightContainMethod("Outer", "run")).isTrue();
+        assertThat(filter.mightContainMethod("Inner", "get")).isTrue();
+    }
+
+    @Test
+    void testRejectsMostMissingEntries() {
+        var classes = IntStream.range(0, 1000)
+                .mapToObj(i -> "{\"name\": \"pkg/Class" + i + "\", \"methods\": [{\"name\": \"method" + i + "\", \"descriptor\": \"()V\"}]}")
+                .collect(Collectors.joining(",", "{\"version\": \"1.1.0\", \"classes\": [", "]}"));
+        var filter = NamesAndDocsFilter.build(ParchmentDatabase.loadJson(new StringReader(classes)));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContainClass("Class" + i)).isTrue();
+            assertThat(filter.mightContainMethod("Class" + i, "method" + i)).isTrue();
+        }
+        for (int i = 0; i < 1000; i++) {
+            filter.mightContainClass("Missing" + i);
+            filter.mightContainMethod("Class" + i, "missing" + i);
+        }
+
+        assertThat(filter.getClassCounters().getHits()).isBetween(1000L, 1050L);
+        assertThat(filter.getClassCounters().getMisses()).isBetween(950L, 1000L);
+        assertThat(filter.getMethodCounters().getHits()).isBetween(1000L, 1050L);
+        assertThat(filter.getMethodCounters().getMisses()).isBetween(950L, 1000L);
+    }
+}
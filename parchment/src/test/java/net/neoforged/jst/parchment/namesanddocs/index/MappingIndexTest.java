@@ -0,0 +1,172 @@
+package net.neoforged.jst.parchment.namesanddocs.index;
+
+import net.neoforged.jst.parchment.namesanddocs.NameAndDocSourceLoader;
+import net.neoforged.jst.parchment.namesanddocs.NamesAndDocsFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappingIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        var writer = new MappingIndexWriter(false);
+        var classBuilder = writer.addClass("pkg/TestClass", List.of("Class doc", "second line"));
+        classBuilder.addField("field", List.of("Field doc"));
+        var method = classBuilder.addMethod("method", "(ILjava/lang/String;)V", List.of("Method doc"));
+        method.addParameter(1, "number", "The number");
+        method.addParameter(2, "text", null);
+        classBuilder.addMethod("method", "()V", List.of());
+        writer.addClass("pkg/TestClass$Inner", List.of());
+
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+        var index = NameAndDocSourceLoader.load(path);
+
+        assertThat(index.getClassNames()).containsExactly("pkg/TestClass", "pkg/TestClass$Inner");
+        assertThat(index.getClass("pkg/Missing")).isNull();
+        assertThat(index.getClass("pkg/TestClass$Inner").getJavadoc()).isEmpty();
+
+        var classData = index.getClass("pkg/TestClass");
+        assertThat(classData.getJavadoc()).containsExactly("Class doc", "second line");
+        assertThat(classData.getField("field").getJavadoc()).containsExactly("Field doc");
+        assertThat(classData.getField("missing")).isNull();
+        assertThat(classData.getMethod("method", "(I)V")).isNull();
+        assertThat(classData.getMethod("method", "()V").getParameter(0, 1)).isNull();
+
+        var methodData = classData.getMethod("method", "(ILjava/lang/String;)V");
+        assertThat(methodData.getJavadoc()).containsExactly("Method doc");
+        assertThat(methodData.getParameter(0, 1).getName()).isEqualTo("number");
+        assertThat(methodData.getParameter(0, 1).getJavadoc()).isEqualTo("The number");
+        assertThat(methodData.getParameter(1, 2).getName()).isEqualTo("text");
+        assertThat(methodData.getParameter(1, 2).getJavadoc()).isNull();
+        assertThat(methodData.getParameter(2, 3)).isNull();
+    }
+
+    @Test
+    void testParametersBySourceIndex() throws IOException {
+        var writer = new MappingIndexWriter(true);
+        writer.addClass("TestClass", List.of())
+                .addMethod("method", "(JI)V", List.of())
+                .addParameter(1, "second", null);
+
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+        var methodData = MappingIndex.load(path).getClass("TestClass").getMethod("method", "(JI)V");
+
+        assertThat(methodData.getParameter(1, 3).getName()).isEqualTo("second");
+        assertThat(methodData.getParameter(0, 1)).isNull();
+    }
+
+    @Test
+    void testClassLookupUsesBinarySearch() throws IOException {
+        var writer = new MappingIndexWriter(false);
+        for (int i = 0; i < 1000; i++) {
+            writer.addClass("pkg/Class" + i, List.of("Doc " + i));
+        }
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+
+        var index = MappingIndex.load(path);
+        assertThat(List.copyOf(index.getClassNames())).hasSize(1000).isSorted();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.getClass("pkg/Class" + i).getJavadoc()).containsExactly("Doc " + i);
+        }
+    }
+
+    @Test
+    void testMemberLookupUsesBinarySearch() throws IOException {
+        var writer = new MappingIndexWriter(false);
+        var classBuilder = writer.addClass("pkg/Wide", List.of());
+        for (int i = 0; i < 500; i++) {
+            classBuilder.addField("field" + i, List.of("Field " + i));
+            classBuilder.addMethod("method" + (i % 50), "(" + "I".repeat(i / 50) + ")V", List.of("Method " + i));
+        }
+        // Sorted by their UTF-8 bytes, not by their UTF-16 chars
+        classBuilder.addField("\uFF21", List.of("Fullwidth"));
+        classBuilder.addField("\uD83D\uDE00", List.of("Emoji"));
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+
+        var classData = MappingIndex.load(path).getClass("pkg/Wide");
+        for (int i = 0; i < 500; i++) {
+            assertThat(classData.getField("field" + i).getJavadoc()).containsExactly("Field " + i);
+            var descriptor = "(" + "I".repeat(i / 50) + ")V";
+            assertThat(classData.getMethod("method" + (i % 50), descriptor).getJavadoc()).containsExactly("Method " + i);
+        }
+        assertThat(classData.getField("\uFF21").getJavadoc()).containsExactly("Fullwidth");
+        assertThat(classData.getField("\uD83D\uDE00").getJavadoc()).containsExactly("Emoji");
+        assertThat(classData.getField("field500")).isNull();
+        assertThat(classData.getMethod("method0", "(J)V")).isNull();
+        assertThat(classData.getMethod("method50", "()V")).isNull();
+    }
+
+    @Test
+    void testFindMethodByParameterPrefix() throws IOException {
+        var writer = new MappingIndexWriter(false);
+        var classBuilder = writer.addClass("pkg/TestClass", List.of());
+        classBuilder.addMethod("<init>", "(Ljava/lang/String;)V", List.of("One"));
+        classBuilder.addMethod("<init>", "(Ljava/lang/String;I)V", List.of("Two"));
+        classBuilder.addMethod("<init>", "(Ljava/lang/String;IJ)I", List.of("Other return type"));
+        classBuilder.addMethod("run", "()V", List.of());
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+        var classData = MappingIndex.load(path).getClass("pkg/TestClass");
+
+        var match = classData.findMethodByParameterPrefix("<init>", List.of("Ljava/lang/String;", "I", "J"), "V");
+        assertThat(match.parameterCount()).isEqualTo(2);
+        assertThat(match.method().getJavadoc()).containsExactly("Two");
+        match = classData.findMethodByParameterPrefix("<init>", List.of("Ljava/lang/String;", "J"), "V");
+        assertThat(match.parameterCount()).isEqualTo(1);
+        assertThat(match.method().getJavadoc()).containsExactly("One");
+        // Parameters that are only matched together share an entry
+        match = classData.findMethodByParameterPrefix("<init>", List.of("Ljava/lang/String;I", "J"), "I");
+        assertThat(match.parameterCount()).isEqualTo(2);
+        assertThat(match.method().getJavadoc()).containsExactly("Other return type");
+
+        assertThat(classData.findMethodByParameterPrefix("<init>", List.of("I"), "V")).isNull();
+        assertThat(classData.findMethodByParameterPrefix("<init>", List.of(), "V")).isNull();
+        assertThat(classData.findMethodByParameterPrefix("run", List.of("I"), "V")).isNull();
+        assertThat(classData.findMethodByParameterPrefix("missing", List.of("I"), "V")).isNull();
+    }
+
+    @Test
+    void testStoresFilterKeys() throws IOException {
+        var writer = new MappingIndexWriter(false);
+        var classBuilder = writer.addClass("pkg/Outer", List.of());
+        classBuilder.addMethod("run", "()V", List.of());
+        classBuilder.addMethod("run", "(I)V", List.of());
+        classBuilder.addMethod("<init>", "()V", List.of());
+        writer.addClass("pkg/Outer$Inner", List.of()).addMethod("get", "()I", List.of());
+        var path = tempDir.resolve("mappings.jstidx");
+        writer.write(path);
+        var index = MappingIndex.load(path);
+
+        // The same keys as found by walking all classes, without decoding their names
+        assertThat(index.getFilterKeys()).containsExactlyInAnyOrder(NamesAndDocsFilter.computeKeys(index));
+
+        var filter = NamesAndDocsFilter.build(index);
+        assertThat(filter.mightContainClass("Outer")).isTrue();
+        assertThat(filter.mightContainClass("Inner")).isTrue();
+        assertThat(filter.mightContainMethod("Outer", "run")).isTrue();
+        assertThat(filter.mightContainMethod("Outer", "<init>")).isTrue();
+        assertThat(filter.mightContainMethod("Inner", "get")).isTrue();
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        var path = tempDir.resolve("mappings.jstidx");
+        Files.writeString(path, "{\"version\": \"1.1.0\"}");
+
+        assertThatThrownBy(() -> MappingIndex.load(path)).isInstanceOf(IOException.class);
+    }
+}
@@ -1,5 +1,6 @@
 package net.neoforged.jst.parchment.namesanddocs.parchment;
 
+import com.google.gson.JsonParseException;
 import org.intellij.lang.annotations.Language;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -10,11 +11,15 @@ import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ParchmentDatabaseTest {
@@ -31,6 +36,59 @@ class ParchmentDatabaseTest {
             }
             """;
 
+    @Language("JSON")
+    private static final String FULL_JSON = """
+            {
+              "version": "1.1.0",
+              "packages": [
+                {
+                  "name": "pkg",
+                  "javadoc": ["Package doc"]
+                }
+              ],
+              "classes": [
+                {
+                  "name": "pkg/TestClass",
+                  "javadoc": ["Class doc", "second line"],
+                  "fields": [
+                    {
+                      "name": "field",
+                      "descriptor": "I",
+                      "javadoc": "Field doc"
+                    }
+                  ],
+                  "methods": [
+                    {
+                      "name": "method",
+                      "descriptor": "(ILjava/lang/String;)V",
+                      "javadoc": ["Method doc"],
+                      "parameters": [
+                        {
+                          "index": 1,
+                          "name": "number",
+                          "javadoc": "The number"
+                        },
+                        {
+                          "index": 2,
+                          "name": "text"
+                        }
+                      ]
+                    },
+                    {
+                      "name": "method",
+                      "descriptor": "()V",
+                      "unknownKey": {"nested": [1, 2]}
+                    }
+                  ]
+                },
+                {
+                  "name": "pkg/OtherClass",
+                  "javadoc": null
+                }
+              ]
+            }
+            """;
+
     @TempDir
     Path tempDir;
 
@@ -40,6 +98,106 @@ class ParchmentDatabaseTest {
         assertNotNull(db.getClass("TestClass"));
     }
 
+    @Test
+    void testLoadNamesAndDocs() {
+        var db = ParchmentDatabase.loadJson(new StringReader(FULL_JSON));
+        assertEquals(List.of("pkg/OtherClass", "pkg/TestClass"), db.getClassNames().stream().sorted().toList());
+        assertEquals(List.of(), db.getClass("pkg/OtherClass").getJavadoc());
+        assertNull(db.getClass("pkg/Missing"));
+
+        var classData = db.getClass("pkg/TestClass");
+        assertEquals(List.of("Class doc", "second line"), classData.getJavadoc());
+        assertEquals(List.of("Field doc"), classData.getField("field").getJavadoc());
+        assertNull(classData.getField("missing"));
+        assertNull(classData.getMethod("method", "(I)V"));
+        assertEquals(List.of(), classData.getMethod("method", "()V").getJavadoc());
+
+        var methodData = classData.getMethod("method", "(ILjava/lang/String;)V");
+        assertEquals(List.of("Method doc"), methodData.getJavadoc());
+        assertEquals("number", methodData.getParameter(0, 1).getName());
+        assertEquals("The number", methodData.getParameter(0, 1).getJavadoc());
+        assertEquals("text", methodData.getParameter(1, 2).getName());
+        assertNull(methodData.getParameter(1, 2).getJavadoc());
+        assertNull(methodData.getParameter(2, 3));
+    }
+
+    @Test
+    void testLookupsReturnSharedInstances() {
+        var db = ParchmentDatabase.loadJson(new StringReader(FULL_JSON));
+        var classData = db.getClass("pkg/TestClass");
+        assertSame(classData, db.getClass("pkg/TestClass"));
+        assertSame(classData.getField("field"), classData.getField("field"));
+        var methodData = classData.getMethod("method", "(ILjava/lang/String;)V");
+        assertSame(methodData, classData.getMethod("method", "(ILjava/lang/String;)V"));
+        assertSame(methodData.getParameter(0, 1), methodData.getParameter(0, 1));
+    }
+
+    @Test
+    void testMethodByParameterPrefix() {
+        var db = ParchmentDatabase.loadJson(new StringReader("""
+                {
+                  "version": "1.1.0",
+                  "classes": [
+                    {
+                      "name": "TestClass",
+                      "methods": [
+                        {"name": "m", "descriptor": "(Ljava/lang/String;)V", "javadoc": ["one"]},
+                        {"name": "m", "descriptor": "(Ljava/lang/String;[[I)V", "javadoc": ["two"]},
+                        {"name": "m", "descriptor": "(Ljava/lang/String;[[I)I", "javadoc": ["two, returning int"]},
+                        {"name": "m", "descriptor": "()V", "javadoc": ["none"]}
+                      ]
+                    }
+                  ]
+                }"""));
+        var classData = db.getClass("TestClass");
+
+        assertEquals(List.of("two"), classData.getMethodByParameterPrefix("m", List.of("Ljava/lang/String;", "[[I", "J"), "V").getJavadoc());
+        assertEquals(List.of("two, returning int"), classData.getMethodByParameterPrefix("m", List.of("Ljava/lang/String;", "[[I"), "I").getJavadoc());
+        assertEquals(List.of("one"), classData.getMethodByParameterPrefix("m", List.of("Ljava/lang/String;", "[I"), "V").getJavadoc());
+        assertNull(classData.getMethodByParameterPrefix("m", List.of("Ljava/lang/String;"), "I"));
+        assertNull(classData.getMethodByParameterPrefix("m", List.of("I"), "V"));
+        // Methods without parameters are only found by their exact descriptor
+        assertNull(classData.getMethodByParameterPrefix("m", List.of(), "V"));
+        assertEquals(List.of("none"), classData.getMethod("m", "()V").getJavadoc());
+        assertEquals(List.of("two, returning int"), classData.getMethod("m", "(Ljava/lang/String;[[I)I").getJavadoc());
+        assertNull(classData.getMethod("m", "(Ljava/lang/String;[I)V"));
+    }
+
+    @Test
+    void testMethodByParameterPrefixKeepsEntriesTogether() {
+        var db = ParchmentDatabase.loadJson(new StringReader("""
+                {
+                  "version": "1.1.0",
+                  "classes": [
+                    {
+                      "name": "TestEnum",
+                      "methods": [
+                        {"name": "<init>", "descriptor": "(Ljava/lang/String;)V", "javadoc": ["name only"]}
+                      ]
+                    },
+                    {
+                      "name": "OtherEnum",
+                      "methods": [
+                        {"name": "<init>", "descriptor": "(Ljava/lang/String;)V", "javadoc": ["name only"]},
+                        {"name": "<init>", "descriptor": "(Ljava/lang/String;I)V", "javadoc": ["implicit"]}
+                      ]
+                    }
+                  ]
+                }"""));
+
+        // The implicit parameters of enum constructors can't be split
+        assertNull(db.getClass("TestEnum").getMethodByParameterPrefix("<init>", List.of("Ljava/lang/String;I", "J"), "V"));
+        assertEquals(List.of("implicit"), db.getClass("OtherEnum").getMethodByParameterPrefix("<init>", List.of("Ljava/lang/String;I", "J"), "V").getJavadoc());
+    }
+
+    @Test
+    void testRejectsUnsupportedVersion() {
+        assertThrows(JsonParseException.class, () -> ParchmentDatabase.loadJson(new StringReader("""
+                {"version": "2.0.0", "classes": []}""")));
+        assertThrows(JsonParseException.class, () -> ParchmentDatabase.loadJson(new StringReader("""
+                {"classes": []}""")));
+    }
+
     @Test
     void testLoadFromJsonFile() throws IOException {
         var tempFile = tempDir.resolve("test.json");
@@ -7,6 +7,7 @@ import com.intellij.psi.PsiMethod;
 import com.intellij.psi.util.PsiTreeUtil;
 import net.neoforged.jst.api.Logger;
 import net.neoforged.jst.cli.intellij.IntelliJEnvironmentImpl;
+import net.neoforged.jst.parchment.FieldNameCache;
 import net.neoforged.jst.parchment.ReservedVariableNamesCollector;
 import org.intellij.lang.annotations.Language;
 import org.junit.jupiter.api.AfterAll;
@@ -157,6 +158,26 @@ public class ReservedVariableNamesTest {
                 .containsExactlyInAnyOrder("directField", "inheritedField", "declaredAnon");
     }
 
+    @Test
+    void testOnlyCandidatesAreCollected() {
+        var method = parseSingleMethod("""
+                class Main {
+                    void run() {
+                        String declared = "a";
+                        int declaredInt = 1;
+                        new Object() {
+                            int anonymousField;
+                        };
+                    }
+                }""");
+
+        var names = new HashSet<String>();
+        var collector = new ReservedVariableNamesCollector(names, Set.of("declaredInt", "anonymousField", "unused"), new FieldNameCache());
+        collector.visitElement(method);
+        assertThat(names).containsExactlyInAnyOrder("declaredInt", "anonymousField");
+        assertThat(collector.isComplete()).isFalse();
+    }
+
     private Set<String> collectReferences(PsiElement element) {
         var set = new HashSet<String>();
         new ReservedVariableNamesCollector(set).visitElement(element);
@@ -0,0 +1,5 @@
+package com.example;
+
+public class Unrelated {
+    private int unrelatedField;
+}
@@ -0,0 +1,9 @@
+package com.example;
+
+public class Primary {
+    private int primaryField;
+}
+
+class Secondary {
+    private int secondaryField;
+}
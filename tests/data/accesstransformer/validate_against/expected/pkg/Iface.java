@@ -0,0 +1,5 @@
+package pkg;
+
+public interface Iface {
+    void run();
+}
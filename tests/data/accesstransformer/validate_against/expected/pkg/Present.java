@@ -0,0 +1,12 @@
+package pkg;
+
+class Present {
+    private int field;
+    int nonFinal;
+
+    private void method() {}
+
+    class Inner {
+        private int innerField;
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+public class Shadowing {
+    private int size;
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public IntSupplier anonymousClass(int p_1) {
+        return new IntSupplier() {
+            @Override
+            public int getAsInt() {
+                return p_1 + compute(p_1 * 2);
+            }
+
+            int compute(int p_1) {
+                return p_1 + 1;
+            }
+        };
+    }
+
+    public IntSupplier lambda(int p_2) {
+        return new IntSupplier() {
+            final IntUnaryOperator doubler = p_2 -> p_2 * 2;
+
+            @Override
+            public int getAsInt() {
+                return doubler.applyAsInt(p_2);
+            }
+        };
+    }
+}
@@ -7,6 +7,9 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import com.intellij.util.ArrayUtil;
 import net.neoforged.jst.cli.Main;
+import net.neoforged.jst.parchment.namesanddocs.index.MappingIndexWriter;
+import net.neoforged.jst.parchment.namesanddocs.parchment.ParchmentDatabase;
+import net.neoforged.jst.parchment.namesanddocs.srgutils.MappingFileDatabase;
 import net.neoforged.problems.FileProblemReporter;
 import net.neoforged.problems.Problem;
 import org.assertj.core.util.CanIgnoreReturnValue;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import javax.tools.ToolProvider;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -111,6 +115,73 @@ public class EmbeddedTest {
             var expectedCotent = truncateTimes(loadDirToMap(singleFile.getParent()));
             assertThat(actualContent).isEqualTo(expectedCotent);
         }
+
+        @Test
+        void missingDaemonFallsBackToInProcess() throws Exception {
+            var singleFile = testDataRoot.resolve("single_file/Test.java");
+            var outputFile = tempDir.resolve("Test.java");
+
+            var output = runTool("--daemon-socket", tempDir.resolve("no-daemon.sock").toString(), singleFile.toString(), outputFile.toString());
+
+            assertThat(output).contains("No JST daemon is listening on");
+            assertThat(loadDirToMap(tempDir)).isEqualTo(loadDirToMap(singleFile.getParent()));
+        }
+
+        @Test
+        void daemonRunsSubmittedJobs() throws Exception {
+            var singleFile = testDataRoot.resolve("single_file/Test.java");
+            var outputDir = Files.createDirectories(tempDir.resolve("output"));
+            var socket = tempDir.resolve("jst.sock");
+
+            var daemon = startDaemon(socket);
+            try {
+                for (int job = 1; job <= 2; job++) {
+                    var output = runTool("--daemon-socket", socket.toString(), singleFile.toString(), outputDir.resolve("Test.java").toString());
+
+                    assertThat(output)
+                            .doesNotContain("No JST daemon is listening on")
+                            .contains("JST daemon: Job #" + job + " finished with exit code 0");
+                    assertThat(loadDirToMap(outputDir)).isEqualTo(loadDirToMap(singleFile.getParent()));
+                }
+            } finally {
+                stopDaemon(daemon, socket);
+            }
+        }
+
+        private Process startDaemon(Path socket) throws Exception {
+            var log = tempDir.resolve("daemon.log");
+            var daemon = new ProcessBuilder(javaExecutable(), "-cp", getRequiredSystemProperty("jst.executableJar"),
+                    "net.neoforged.jst.cli.Daemon", "--socket=" + socket)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+
+            var deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (!Files.readString(log).contains("JST daemon listening on")) {
+                if (!daemon.isAlive() || System.nanoTime() > deadline) {
+                    daemon.destroyForcibly();
+                    throw new IllegalStateException("JST daemon did not start: " + Files.readString(log));
+                }
+                Thread.sleep(50);
+            }
+            return daemon;
+        }
+
+        private void stopDaemon(Process daemon, Path socket) throws Exception {
+            try {
+                var stop = new ProcessBuilder(javaExecutable(), "-cp", getRequiredSystemProperty("jst.executableJar"),
+                        "net.neoforged.jst.cli.Daemon", "--socket=" + socket, "--stop")
+                        .redirectErrorStream(true)
+                        .start();
+                var stopOutput = new String(stop.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertEquals(0, stop.waitFor(), stopOutput);
+                assertThat(daemon.waitFor(1, TimeUnit.MINUTES)).isTrue();
+                assertEquals(0, daemon.exitValue());
+                assertThat(socket).doesNotExist();
+            } finally {
+                daemon.destroyForcibly();
+            }
+        }
     }
 
     @Nested
@@ -236,6 +307,30 @@ public class EmbeddedTest {
         void testConflicts() throws Exception {
             runParchmentTest("conflicts", "mappings.tsrg", "--parchment-conflict-prefix=p_");
         }
+
+        @Test
+        void testShadowedParameters() throws Exception {
+            runParchmentTest("shadowing", "parchment.json");
+        }
+
+        @Test
+        void testWithoutVerification() throws Exception {
+            runParchmentTest("javadoc", "parchment.json", "--verify=none");
+        }
+
+        @Test
+        void testCompiledParchmentIndex() throws Exception {
+            var index = tempDir.resolve("parchment.jstidx");
+            MappingIndexWriter.fromParchment(ParchmentDatabase.loadJson(testDataRoot.resolve("parchment/javadoc/parchment.json"))).write(index);
+            runTest("parchment/javadoc", UnaryOperator.identity(), "--enable-parchment", "--parchment-mappings", index.toString());
+        }
+
+        @Test
+        void testCompiledTsrgIndex() throws Exception {
+            var index = tempDir.resolve("tsrg.jstidx");
+            MappingIndexWriter.fromMappingFile(MappingFileDatabase.load(testDataRoot.resolve("parchment/tsrg_file/merged.tsrg")).getMappingFile()).write(index);
+            runTest("parchment/tsrg_file", UnaryOperator.identity(), "--enable-parchment", "--parchment-mappings", index.toString());
+        }
     }
 
     @Nested
@@ -290,6 +385,14 @@ public class EmbeddedTest {
             runATTest("missing_target");
         }
 
+        @Test
+        void testCachedParsedFiles() throws Exception {
+            var atCacheDir = tempDir.resolve("at-cache");
+            runATTest("missing_target", "--access-transformer-cache-dir", atCacheDir.toString());
+            // Loaded from the cache, which must report problems at the same locations
+            runATTest("missing_target", "--access-transformer-cache-dir", atCacheDir.toString());
+        }
+
         @Test
         void testImplicitConstructors() throws Exception {
             runATTest("implicit_constructors");
@@ -300,10 +403,22 @@ public class EmbeddedTest {
             runATTest("illegal");
         }
 
+        @Test
+        void testSecondaryTopLevelClasses() throws Exception {
+            runATTest("secondary_classes");
+        }
+
         @Test
         void testFolderClasspathEntries() throws Exception {
             runATTest("folder_classpath_entry", "--classpath=" + testDataRoot.resolve("accesstransformer/folder_classpath_entry/deps"));
         }
+
+        @Test
+        void testValidateAgainstJar() throws Exception {
+            var jar = compileToJar(testDataRoot.resolve("accesstransformer/validate_against/source"));
+            // The sources are left unchanged, since the ATs are only validated
+            runATTest("validate_against", "--access-transformer-validate-against", jar.toString());
+        }
     }
 
     @Nested
@@ -355,6 +470,42 @@ public class EmbeddedTest {
         void testNestedGenericStubs() throws Exception {
             runInterfaceInjectionTest("nested_generic_stubs", tempDir);
         }
+
+        @Test
+        void testUnreadableDataFailsRun() {
+            var testDir = testDataRoot.resolve("interfaceinjection/simple_injection");
+            var missingData = tempDir.resolve("missing.json");
+            var outputDir = tempDir.resolve("output");
+
+            // The data is loaded in the background, so the failure is only reported to the run by beforeRun
+            var e = assertThrows(Throwable.class, () -> runTool("--enable-interface-injection",
+                    "--interface-injection-data", missingData.toString(),
+                    testDir.resolve("source").toString(), outputDir.toString()));
+            assertThat(e).hasMessageContaining("Failed to read interface injection data file: " + missingData);
+        }
+    }
+
+    @Nested
+    class IncrementalCache {
+        @TempDir
+        Path cacheDir;
+
+        @Test
+        void testCachedResultIsReused() throws Exception {
+            var firstRun = runATTest("fields", "--cache-dir", cacheDir.toString(), "--debug");
+            assertThat(firstRun).contains("Incremental cache: 0 hits, 1 misses");
+            try (var entries = Files.walk(cacheDir)) {
+                assertThat(entries.filter(Files::isRegularFile).count()).isGreaterThan(0);
+            }
+            var secondRun = runATTest("fields", "--cache-dir", cacheDir.toString(), "--debug");
+            assertThat(secondRun).contains("Incremental cache: 1 hits, 0 misses");
+        }
+
+        @Test
+        void testMissingTargetsAreReportedAgain() throws Exception {
+            runATTest("missing_target", "--cache-dir", cacheDir.toString());
+            runATTest("missing_target", "--cache-dir", cacheDir.toString());
+        }
     }
 
     protected final void runInterfaceInjectionTest(String testDirName, Path tempDir, String... additionalArgs) throws Exception {
@@ -373,10 +524,11 @@ public class EmbeddedTest {
         }
     }
 
-    protected final void runATTest(String testDirName, final String... extraArgs) throws Exception {
+    @CanIgnoreReturnValue
+    protected final String runATTest(String testDirName, final String... extraArgs) throws Exception {
         testDirName = "accesstransformer/" + testDirName;
         var atPath = testDataRoot.resolve(testDirName).resolve("accesstransformer.cfg");
-        runTest(testDirName, txt -> txt.replace(atPath.toAbsolutePath().toString(), "{atpath}"), ArrayUtil.mergeArrays(
+        return runTest(testDirName, txt -> txt.replace(atPath.toAbsolutePath().toString(), "{atpath}"), ArrayUtil.mergeArrays(
                 new String[]{
                         "--enable-accesstransformers", "--access-transformer", atPath.toString()
                 },
@@ -391,7 +543,8 @@ public class EmbeddedTest {
         runTest(testDirName, UnaryOperator.identity(), args.toArray(String[]::new));
     }
 
-    protected final void runTest(String testDirName, UnaryOperator<String> consoleMapper, String... args) throws Exception {
+    @CanIgnoreReturnValue
+    protected final String runTest(String testDirName, UnaryOperator<String> consoleMapper, String... args) throws Exception {
         var testDir = testDataRoot.resolve(testDirName);
         var sourceDir = testDir.resolve("source");
         var expectedDir = testDir.resolve("expected");
@@ -450,6 +603,8 @@ public class EmbeddedTest {
 
             assertEquals(problemsToJson(expectedRecords), problemsToJson(actualRecords));
         }
+
+        return consoleOut;
     }
 
     private String problemsToJson(List<Problem> problems) {
@@ -517,6 +672,10 @@ public class EmbeddedTest {
         return capturedOutString;
     }
 
+    protected static String javaExecutable() {
+        return ProcessHandle.current().info().command().orElseThrow();
+    }
+
     protected static String getRequiredSystemProperty(String key) {
         var value = System.getProperty(key);
         if (value == null) {
@@ -560,6 +719,35 @@ public class EmbeddedTest {
         }
     }
 
+    /**
+     * Compiles the sources in the given directory into a jar whose entries are sorted by their path.
+     */
+    private Path compileToJar(Path sourceDir) throws IOException {
+        List<Path> sources;
+        try (var files = Files.walk(sourceDir)) {
+            sources = files.filter(path -> path.getFileName().toString().endsWith(".java")).toList();
+        }
+
+        var classesDir = tempDir.resolve("classes");
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            var success = compiler.getTask(null, fileManager, null, List.of("-d", classesDir.toString()), null,
+                    fileManager.getJavaFileObjectsFromPaths(sources)).call();
+            assertThat(success).describedAs("Compiling " + sourceDir).isTrue();
+        }
+
+        var jar = tempDir.resolve("classes.jar");
+        try (var zOut = new ZipOutputStream(Files.newOutputStream(jar));
+             var files = Files.walk(classesDir)) {
+            for (var path : files.filter(Files::isRegularFile).sorted().toList()) {
+                zOut.putNextEntry(new ZipEntry(classesDir.relativize(path).toString().replace('\\', '/')));
+                Files.copy(path, zOut);
+                zOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
     private static Map<String, DirectoryTreeElement> loadZipToMap(Path archive) throws IOException {
         var result = new HashMap<String, DirectoryTreeElement>();
 
@@ -11,13 +11,8 @@ import java.util.List;
 public class ExecutableJarTest extends EmbeddedTest {
     @Override
     protected String runTool(String... args) throws Exception {
-        var javaExecutablePath = ProcessHandle.current()
-                .info()
-                .command()
-                .orElseThrow();
-
         List<String> commandLine = new ArrayList<>();
-        commandLine.add(javaExecutablePath);
+        commandLine.add(javaExecutable());
         commandLine.add("-jar");
         commandLine.add(getRequiredSystemProperty("jst.executableJar"));
         Collections.addAll(commandLine, args);